@@ -0,0 +1,93 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.model.Node;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+
+/**
+ * A {@link NodeIterator} extension over a fixed array of {@link Node}s, for benchmarks. It is a legacy extension,
+ * a single reusable iterator that starts again once it has been exhausted, while {@link Splitting} provides its own
+ * {@link NodeIterator#spliterator()}.
+ */
+class FakeNodeIterator extends NodeIterator<Node> {
+
+    final Node[] nodes;
+
+    private final Class<? extends Node> declaredType;
+
+    private int index;
+
+    FakeNodeIterator(Node[] nodes, Class<? extends Node> declaredType) {
+        this.nodes = nodes;
+        this.declaredType = declaredType;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (index < nodes.length) {
+            return true;
+        }
+        index = 0;
+        return false;
+    }
+
+    @Override
+    public Node next() {
+        if (index >= nodes.length) {
+            throw new NoSuchElementException();
+        }
+        return nodes[index++];
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected Set<Class<? extends Node>> getNodeTypes() {
+        return Collections.<Class<? extends Node>>singleton(declaredType);
+    }
+
+    /**
+     * A {@link FakeNodeIterator} that provides its own {@link NodeIterator#spliterator()}.
+     */
+    static class Splitting extends FakeNodeIterator {
+
+        Splitting(Node[] nodes, Class<? extends Node> declaredType) {
+            super(nodes, declaredType);
+        }
+
+        @Override
+        protected Spliterator<? extends Node> spliterator() {
+            return Arrays.spliterator(nodes);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.model.Node;
+import jenkins.model.Jenkins;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link NodeIterator} API against a fake {@link Jenkins} node list and synthetic
+ * {@link NodeIterator} extensions installed through {@link NodeSources#fix(List, List)}, so no controller is needed
+ * and nothing is persisted. Half of the {@link Node}s are treated as attached to {@link Jenkins} and the other half
+ * are spread evenly across the extensions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodeIteratorBenchmark {
+
+    /**
+     * How the extensions declare the types of {@link Node} they lend.
+     */
+    public enum TypeMix {
+        /**
+         * Every extension lends {@link FakeNode.Lent} but does not declare it.
+         */
+        UNDECLARED,
+        /**
+         * Half the extensions lend {@link FakeNode.Lent} and half lend {@link FakeNode.OtherLent}, each declaring the
+         * type it lends.
+         */
+        DECLARED
+    }
+
+    /**
+     * How the extensions iterate their {@link Node}s.
+     */
+    public enum Style {
+        /**
+         * Legacy extensions that iterate themselves through {@link NodeIterator#hasNext()} and
+         * {@link NodeIterator#next()}.
+         */
+        LEGACY,
+        /**
+         * Extensions that provide their own {@link NodeIterator#spliterator()}.
+         */
+        SPLITERATOR
+    }
+
+    @State(Scope.Benchmark)
+    public static class Nodes {
+
+        @Param({"1000", "10000", "100000"})
+        public int nodeCount;
+
+        @Param({"1", "10", "50"})
+        public int extensionCount;
+
+        @Param({"UNDECLARED", "DECLARED"})
+        public TypeMix typeMix;
+
+        @Param({"LEGACY", "SPLITERATOR"})
+        public Style style;
+
+        private String[] names;
+
+        private int lookup;
+
+        @Setup
+        public void setup() {
+            List<Node> attached = new ArrayList<Node>();
+            int attachedCount = nodeCount / 2;
+            for (int i = 0; i < attachedCount; i++) {
+                attached.add(new FakeNode(String.format("attached-%06d", i)));
+            }
+            List<NodeIterator<? extends Node>> extensions = new ArrayList<NodeIterator<? extends Node>>();
+            List<String> lentNames = new ArrayList<String>();
+            int perExtension = (nodeCount - attachedCount) / extensionCount;
+            for (int e = 0; e < extensionCount; e++) {
+                boolean other = typeMix == TypeMix.DECLARED && e % 2 == 1;
+                Node[] nodes = new Node[perExtension];
+                for (int i = 0; i < perExtension; i++) {
+                    String name = String.format("lent-%02d-%06d", e, i);
+                    nodes[i] = other ? new FakeNode.OtherLent(name) : new FakeNode.Lent(name);
+                    lentNames.add(name);
+                }
+                Class<? extends Node> declared = typeMix == TypeMix.UNDECLARED
+                        ? Node.class
+                        : other ? FakeNode.OtherLent.class : FakeNode.Lent.class;
+                extensions.add(style == Style.LEGACY
+                        ? new FakeNodeIterator(nodes, declared)
+                        : new FakeNodeIterator.Splitting(nodes, declared));
+            }
+            NodeSources.fix(attached, extensions);
+            Collections.shuffle(lentNames);
+            names = lentNames.toArray(new String[0]);
+        }
+
+        @TearDown
+        public void tearDown() {
+            NodeSources.fix(null, Collections.<NodeIterator<? extends Node>>emptyList());
+        }
+
+        String nextName() {
+            return names[lookup++ % names.length];
+        }
+    }
+
+    @Benchmark
+    public void iterateAll(Nodes nodes, Blackhole blackhole) {
+        for (Iterator<Node> i = NodeIterator.iterator(); i.hasNext(); ) {
+            blackhole.consume(i.next());
+        }
+    }
+
+    @Benchmark
+    public void iterateTyped(Nodes nodes, Blackhole blackhole) {
+        for (Iterator<FakeNode.Lent> i = NodeIterator.iterator(FakeNode.Lent.class); i.hasNext(); ) {
+            blackhole.consume(i.next());
+        }
+    }
+
+    @Benchmark
+    public long streamTypedParallel(Nodes nodes) {
+        return NodeIterator.stream(FakeNode.Lent.class).parallel().count();
+    }
+
+    @Benchmark
+    public boolean isComplete(Nodes nodes) {
+        return NodeIterator.isComplete(FakeNode.Lent.class);
+    }
+
+    @Benchmark
+    public Node findByName(Nodes nodes) {
+        return NodeIterator.findByName(nodes.nextName());
+    }
+}
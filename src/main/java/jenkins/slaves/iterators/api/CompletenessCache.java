@@ -0,0 +1,179 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Node;
+import jenkins.util.SystemProperties;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the results of {@link NodeIterator#hasCompleteLiveSet(Class)} for a short time so that repeated calls to
+ * {@link NodeIterator#isComplete(Class)} do not probe the connectivity of every extension. The results of an
+ * extension are discarded as soon as it {@linkplain NodeIterator#fireCompletenessChanged() reports a change}, or
+ * replaced by the state it {@linkplain NodeIterator#fireCompletenessChanged(Class, boolean) publishes}.
+ * The time to live is set in milliseconds by the {@code jenkins.slaves.iterators.api.CompletenessCache.ttl} system
+ * property, a value of {@code 0} disables the cache.
+ */
+final class CompletenessCache {
+
+    /**
+     * How long a result may be reused, in nanoseconds.
+     */
+    static final long TTL = TimeUnit.MILLISECONDS.toNanos(
+            SystemProperties.getLong(CompletenessCache.class.getName() + ".ttl", 1000L));
+
+    /**
+     * The cached results of each extension.
+     */
+    private static final ConcurrentMap<NodeIterator<?>, ConcurrentMap<Class<?>, Result>> CACHE =
+            new ConcurrentHashMap<NodeIterator<?>, ConcurrentMap<Class<?>, Result>>();
+
+    /**
+     * Utility class.
+     */
+    private CompletenessCache() {
+    }
+
+    /**
+     * Returns the, possibly cached, result of {@link NodeIterator#hasCompleteLiveSet(Class)}.
+     *
+     * @param extension the extension.
+     * @param nodeClass the type of {@link Node}.
+     * @param <N>       the class type of node.
+     * @return the result of {@link NodeIterator#hasCompleteLiveSet(Class)}.
+     */
+    static <N extends Node> boolean hasCompleteLiveSet(@NonNull NodeIterator<?> extension,
+                                                       @NonNull Class<N> nodeClass) {
+        if (TTL <= 0) {
+            return probe(extension, nodeClass);
+        }
+        // grab the map first so that a result computed across an invalidation is written to the discarded map
+        ConcurrentMap<Class<?>, Result> results = CACHE.get(extension);
+        if (results == null) {
+            ConcurrentMap<Class<?>, Result> created = new ConcurrentHashMap<Class<?>, Result>();
+            results = CACHE.putIfAbsent(extension, created);
+            if (results == null) {
+                results = created;
+            }
+        }
+        Result result = results.get(nodeClass);
+        long now = System.nanoTime();
+        if (result != null && now - result.expires < 0) {
+            return result.complete;
+        }
+        boolean complete = probe(extension, nodeClass);
+        results.put(nodeClass, new Result(complete, now + TTL));
+        return complete;
+    }
+
+    /**
+     * Calls {@link NodeIterator#hasCompleteLiveSet(Class)}, recording the call in {@link NodeIteratorMetrics}.
+     *
+     * @param extension the extension.
+     * @param nodeClass the type of {@link Node}.
+     * @param <N>       the class type of node.
+     * @return the result of {@link NodeIterator#hasCompleteLiveSet(Class)}.
+     */
+    static <N extends Node> boolean probe(@NonNull NodeIterator<?> extension, @NonNull Class<N> nodeClass) {
+        long start = System.nanoTime();
+        boolean complete;
+        try {
+            complete = extension.hasCompleteLiveSet(nodeClass);
+        } catch (RuntimeException e) {
+            NodeIteratorMetrics.get().failed(extension);
+            throw e;
+        }
+        NodeIteratorMetrics.get().probed(extension, System.nanoTime() - start, complete);
+        CompletenessHistory.get().observed(extension, nodeClass, complete);
+        return complete;
+    }
+
+    /**
+     * Discards the cached results of an extension.
+     *
+     * @param extension the extension.
+     */
+    static void invalidate(@NonNull NodeIterator<?> extension) {
+        CACHE.remove(extension);
+    }
+
+    /**
+     * Discards the cached results of the extensions that are no longer registered.
+     *
+     * @param extensions the registered extensions.
+     */
+    static void retain(@NonNull Set<?> extensions) {
+        CACHE.keySet().retainAll(extensions);
+    }
+
+    /**
+     * Replaces the cached results of an extension with the state it has published for a type of {@link Node}.
+     *
+     * @param extension the extension.
+     * @param nodeClass the type of {@link Node}.
+     * @param complete  the state published by the extension.
+     */
+    static void update(@NonNull NodeIterator<?> extension, @NonNull Class<? extends Node> nodeClass,
+                       boolean complete) {
+        if (TTL > 0) {
+            // the results for related types may have changed too, so replace them all in one step: a probe that
+            // raced in between a removal and an insertion would otherwise win over the published state
+            ConcurrentMap<Class<?>, Result> results = new ConcurrentHashMap<Class<?>, Result>();
+            results.put(nodeClass, new Result(complete, System.nanoTime() + TTL));
+            CACHE.put(extension, results);
+        } else {
+            CACHE.remove(extension);
+        }
+    }
+
+    /**
+     * A cached result.
+     */
+    private static final class Result {
+        /**
+         * The result.
+         */
+        private final boolean complete;
+        /**
+         * The {@link System#nanoTime()} after which the result must not be used.
+         */
+        private final long expires;
+
+        /**
+         * Constructor.
+         *
+         * @param complete the result.
+         * @param expires  the {@link System#nanoTime()} after which the result must not be used.
+         */
+        Result(boolean complete, long expires) {
+            this.complete = complete;
+            this.expires = expires;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Node;
+import jenkins.util.SystemProperties;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records when each {@link NodeIterator} extension stops and starts being able to return its complete live set of
+ * each type of {@link Node}, so that the extension that is making {@link NodeIterator#isComplete(Class)} return
+ * {@code false}, and for how long, can be identified. The state of an extension is observed whenever the
+ * {@link NodeIterator} API asks it through {@link NodeIterator#hasCompleteLiveSet(Class)}. The most recent transitions
+ * are kept, up to the number set by the {@code jenkins.slaves.iterators.api.CompletenessHistory.capacity} system
+ * property.
+ *
+ * @since TODO
+ */
+public final class CompletenessHistory {
+
+    /**
+     * Our logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(CompletenessHistory.class.getName());
+
+    /**
+     * The maximum number of transitions kept.
+     */
+    static final int CAPACITY = Math.max(1,
+            SystemProperties.getInteger(CompletenessHistory.class.getName() + ".capacity", 1000));
+
+    /**
+     * The singleton.
+     */
+    private static final CompletenessHistory INSTANCE = new CompletenessHistory();
+
+    /**
+     * The last observed state of each extension for each type of {@link Node}.
+     */
+    private final ConcurrentMap<NodeIterator<?>, ConcurrentMap<Class<?>, CompletenessTransition>> states =
+            new ConcurrentHashMap<NodeIterator<?>, ConcurrentMap<Class<?>, CompletenessTransition>>();
+
+    /**
+     * The ring buffer of transitions, guarded by {@code this}.
+     */
+    @NonNull
+    private final CompletenessTransition[] transitions = new CompletenessTransition[CAPACITY];
+
+    /**
+     * The total number of transitions recorded, guarded by {@code this}.
+     */
+    private long recorded;
+
+    /**
+     * Singleton.
+     */
+    private CompletenessHistory() {
+    }
+
+    /**
+     * Returns the history.
+     *
+     * @return the history.
+     */
+    @NonNull
+    public static CompletenessHistory get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the recorded transitions, oldest first.
+     *
+     * @return the recorded transitions, oldest first.
+     */
+    @NonNull
+    public synchronized List<CompletenessTransition> getTransitions() {
+        int size = (int) Math.min(recorded, CAPACITY);
+        List<CompletenessTransition> result = new ArrayList<CompletenessTransition>(size);
+        for (long i = recorded - size; i < recorded; i++) {
+            result.add(transitions[(int) (i % CAPACITY)]);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Returns the transitions that started the current windows of incompleteness, that is the extensions and types of
+     * {@link Node} that were incomplete when last asked.
+     *
+     * @return the transitions that started the current windows of incompleteness.
+     */
+    @NonNull
+    public List<CompletenessTransition> getIncomplete() {
+        List<CompletenessTransition> result = new ArrayList<CompletenessTransition>();
+        for (ConcurrentMap<Class<?>, CompletenessTransition> state : states.values()) {
+            for (CompletenessTransition transition : state.values()) {
+                if (!transition.isComplete()) {
+                    result.add(transition);
+                }
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Discards all the recorded transitions, keeping the current state of each extension.
+     */
+    public synchronized void clear() {
+        recorded = 0;
+        Arrays.fill(transitions, null);
+    }
+
+    /**
+     * Records an observation of the state of an extension.
+     *
+     * @param extension the extension.
+     * @param nodeClass the type of {@link Node}.
+     * @param complete  the result of {@link NodeIterator#hasCompleteLiveSet(Class)}.
+     */
+    void observed(@NonNull NodeIterator<?> extension, @NonNull Class<? extends Node> nodeClass, boolean complete) {
+        ConcurrentMap<Class<?>, CompletenessTransition> state = states.get(extension);
+        if (state == null) {
+            ConcurrentMap<Class<?>, CompletenessTransition> created =
+                    new ConcurrentHashMap<Class<?>, CompletenessTransition>();
+            state = states.putIfAbsent(extension, created);
+            if (state == null) {
+                state = created;
+            }
+        }
+        CompletenessTransition previous = state.get(nodeClass);
+        if (previous != null && previous.isComplete() == complete) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        CompletenessTransition transition = new CompletenessTransition(extension.getClass().getName(),
+                nodeClass.getName(), complete, now, previous == null ? -1L : now - previous.getTimestamp());
+        boolean changed = previous == null ? state.putIfAbsent(nodeClass, transition) == null
+                : state.replace(nodeClass, previous, transition);
+        if (changed && (previous != null || !complete)) {
+            // being complete when first asked is the normal state, not worth a transition
+            record(transition);
+            NodeIteratorCompletenessListener.fire(transition);
+        }
+    }
+
+    /**
+     * Discards the current state of the extensions that are no longer registered. Their recorded transitions are
+     * kept.
+     *
+     * @param extensions the registered extensions.
+     */
+    void retain(@NonNull Set<?> extensions) {
+        states.keySet().retainAll(extensions);
+    }
+
+    /**
+     * Asks an extension again, in the background, about every type of {@link Node} it has been asked about, so that
+     * the {@link NodeIteratorCompletenessListener}s hear about a change that the extension has signalled without
+     * saying what the new state is.
+     *
+     * @param extension the extension.
+     */
+    void reobserve(@NonNull final NodeIterator<?> extension) {
+        ConcurrentMap<Class<?>, CompletenessTransition> state = states.get(extension);
+        if (state == null || state.isEmpty() || NodeIteratorCompletenessListener.all().isEmpty()) {
+            return;
+        }
+        for (final Class<?> nodeClass : state.keySet()) {
+            NodeIteratorExecutor.get().execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        CompletenessCache.hasCompleteLiveSet(extension, nodeClass.asSubclass(Node.class));
+                    } catch (RuntimeException e) {
+                        LOGGER.log(Level.FINE, "Could not ask " + extension + " about " + nodeClass.getName(), e);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Adds a transition to the ring buffer.
+     *
+     * @param transition the transition.
+     */
+    private synchronized void record(@NonNull CompletenessTransition transition) {
+        transitions[(int) (recorded % CAPACITY)] = transition;
+        recorded++;
+    }
+}
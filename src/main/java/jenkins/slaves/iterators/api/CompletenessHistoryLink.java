@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.Api;
+import hudson.model.ManagementLink;
+import hudson.security.Permission;
+import jenkins.model.Jenkins;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shows the {@link CompletenessHistory} on the "Manage Jenkins" page and exposes it through the remote API.
+ */
+@Extension
+@ExportedBean
+@Restricted(NoExternalUse.class)
+public class CompletenessHistoryLink extends ManagementLink {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @CheckForNull
+    public String getIconFileName() {
+        return "symbol-analytics";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @NonNull
+    public String getDisplayName() {
+        return "Node Completeness";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @NonNull
+    public String getDescription() {
+        return "Which node sources could not return all their nodes, and for how long, blocking the clean up of "
+                + "unused resources.";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @NonNull
+    public String getUrlName() {
+        return "node-iterator-completeness";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @NonNull
+    public Permission getRequiredPermission() {
+        return Jenkins.SYSTEM_READ;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @NonNull
+    public Category getCategory() {
+        return Category.STATUS;
+    }
+
+    /**
+     * Returns the remote API.
+     *
+     * @return the remote API.
+     */
+    @NonNull
+    public Api getApi() {
+        Jenkins.get().checkPermission(Jenkins.SYSTEM_READ);
+        return new Api(this);
+    }
+
+    /**
+     * Returns the current windows of incompleteness.
+     *
+     * @return the transitions that started the current windows of incompleteness.
+     */
+    @Exported(inline = true)
+    @NonNull
+    public List<CompletenessTransition> getIncomplete() {
+        return CompletenessHistory.get().getIncomplete();
+    }
+
+    /**
+     * Returns the recorded transitions, newest first.
+     *
+     * @return the recorded transitions, newest first.
+     */
+    @Exported(inline = true)
+    @NonNull
+    public List<CompletenessTransition> getTransitions() {
+        List<CompletenessTransition> transitions =
+                new ArrayList<CompletenessTransition>(CompletenessHistory.get().getTransitions());
+        Collections.reverse(transitions);
+        return transitions;
+    }
+}
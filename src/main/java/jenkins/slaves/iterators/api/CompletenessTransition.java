@@ -0,0 +1,175 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Util;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import java.util.Date;
+
+/**
+ * A change in whether a {@link NodeIterator} extension can return its complete live set of a type of
+ * {@link hudson.model.Node}.
+ *
+ * @see CompletenessHistory
+ * @since TODO
+ */
+@ExportedBean
+public final class CompletenessTransition {
+
+    /**
+     * The class name of the extension.
+     */
+    @NonNull
+    private final String extension;
+    /**
+     * The class name of the type of {@link hudson.model.Node}.
+     */
+    @NonNull
+    private final String nodeClass;
+    /**
+     * The new state.
+     */
+    private final boolean complete;
+    /**
+     * When the change was observed, in milliseconds since the epoch.
+     */
+    private final long timestamp;
+    /**
+     * How long the previous state lasted in milliseconds, or {@code -1} if the previous state is not known.
+     */
+    private final long previousDuration;
+
+    /**
+     * Constructor.
+     *
+     * @param extension        the class name of the extension.
+     * @param nodeClass        the class name of the type of {@link hudson.model.Node}.
+     * @param complete         the new state.
+     * @param timestamp        when the change was observed, in milliseconds since the epoch.
+     * @param previousDuration how long the previous state lasted in milliseconds, or {@code -1} if not known.
+     */
+    CompletenessTransition(@NonNull String extension, @NonNull String nodeClass, boolean complete, long timestamp,
+                           long previousDuration) {
+        this.extension = extension;
+        this.nodeClass = nodeClass;
+        this.complete = complete;
+        this.timestamp = timestamp;
+        this.previousDuration = previousDuration;
+    }
+
+    /**
+     * Returns the class name of the extension.
+     *
+     * @return the class name of the extension.
+     */
+    @Exported
+    @NonNull
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Returns the class name of the type of {@link hudson.model.Node} affected.
+     *
+     * @return the class name of the type of {@link hudson.model.Node} affected.
+     */
+    @Exported
+    @NonNull
+    public String getNodeClass() {
+        return nodeClass;
+    }
+
+    /**
+     * Returns {@code true} if the extension became complete, {@code false} if it became incomplete.
+     *
+     * @return the new state.
+     */
+    @Exported
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Returns when the change was observed, in milliseconds since the epoch. As the state is only observed when the
+     * {@link NodeIterator} API asks the extension, the change may have happened up to one query earlier.
+     *
+     * @return when the change was observed.
+     */
+    @Exported
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns when the change was observed.
+     *
+     * @return when the change was observed.
+     */
+    @NonNull
+    public Date getDate() {
+        return new Date(timestamp);
+    }
+
+    /**
+     * Returns how long the previous state lasted in milliseconds.
+     *
+     * @return how long the previous state lasted in milliseconds, or {@code -1} if the previous state is not known.
+     */
+    @Exported
+    public long getPreviousDuration() {
+        return previousDuration;
+    }
+
+    /**
+     * Returns how long the previous state lasted, for display.
+     *
+     * @return how long the previous state lasted, or an empty string if the previous state is not known.
+     */
+    @NonNull
+    public String getPreviousDurationString() {
+        return previousDuration < 0 ? "" : Util.getTimeSpanString(previousDuration);
+    }
+
+    /**
+     * Returns how long the new state has lasted so far, for display.
+     *
+     * @return how long the new state has lasted so far.
+     */
+    @NonNull
+    public String getAgeString() {
+        return Util.getTimeSpanString(Math.max(0L, System.currentTimeMillis() - timestamp));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "CompletenessTransition{" + extension + ", " + nodeClass + ", complete=" + complete + ", at "
+                + timestamp + ", after " + previousDuration + "ms}";
+    }
+}
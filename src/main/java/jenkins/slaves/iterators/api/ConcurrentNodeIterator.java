@@ -0,0 +1,357 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An iterator that iterates all the {@link NodeIterator} extensions concurrently, returning the {@link Node}s of each
+ * extension as they arrive. Each extension has a deadline, measured from when its iteration is submitted to the
+ * executor so that time spent waiting for a free thread counts against it, and any extension that misses its deadline
+ * (or fails) is abandoned and reported by {@link #getIncomplete()} rather than stalling the caller. The {@link Node}s
+ * of an abandoned extension that have arrived but not yet been returned are dropped, so an extension is either
+ * complete or reported as incomplete. A legacy extension that iterates itself rather than overriding
+ * {@link NodeIterator#spliterator()} only starts over once it has been exhausted, so once its iteration has started
+ * it is never interrupted: it is walked to the end in the background and only its remaining {@link Node}s are
+ * dropped.
+ *
+ * @param <N> the class type of node.
+ * @see NodeIterator#concurrentIterator(Class, long, TimeUnit)
+ * @since TODO
+ */
+public final class ConcurrentNodeIterator<N extends Node> extends NodeIterator<N> {
+
+    /**
+     * Our logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(ConcurrentNodeIterator.class.getName());
+
+    /**
+     * The type of {@link Node} that we are iterating.
+     */
+    @NonNull
+    private final Class<N> nodeClass;
+    /**
+     * The deadline of each extension in nanoseconds.
+     */
+    private final long timeout;
+    /**
+     * The {@link Node}s attached to {@link jenkins.model.Jenkins}.
+     */
+    @NonNull
+    private final Iterator<Node> local;
+    /**
+     * The extensions being iterated.
+     */
+    @NonNull
+    private final List<Source> sources;
+    /**
+     * The {@link Node}s from the extensions as they arrive, interspersed with the end of each {@link Source} once it
+     * has been exhausted.
+     */
+    @NonNull
+    private final BlockingQueue<Arrival> queue = new LinkedBlockingQueue<Arrival>();
+    /**
+     * The extensions that have missed their deadline or failed.
+     */
+    @NonNull
+    private final List<NodeIterator<? extends Node>> incomplete = new ArrayList<NodeIterator<? extends Node>>();
+    /**
+     * The number of extensions that are still being iterated.
+     */
+    private int pending;
+    /**
+     * The next node.
+     */
+    @CheckForNull
+    private N next;
+
+    /**
+     * Constructs the iterator and starts iterating the extensions.
+     *
+     * @param nodeClass  the type of {@link Node} that we are iterating.
+     * @param extensions the extensions to iterate.
+     * @param timeout    the deadline of each extension.
+     * @param unit       the unit of {@code timeout}.
+     */
+    ConcurrentNodeIterator(@NonNull Class<N> nodeClass, @NonNull List<NodeIterator<? extends Node>> extensions,
+                           long timeout, @NonNull TimeUnit unit) {
+        this.nodeClass = nodeClass;
+        this.timeout = unit.toNanos(timeout);
+        this.local = NodeSources.jenkinsNodes().iterator();
+        this.sources = new ArrayList<Source>(extensions.size());
+        ExecutorService executor = NodeIteratorExecutor.get();
+        for (NodeIterator<? extends Node> extension : extensions) {
+            Source source = new Source(extension, System.nanoTime() + this.timeout);
+            sources.add(source);
+            source.future = executor.submit(source);
+        }
+        this.pending = sources.size();
+    }
+
+    /**
+     * Returns the extensions that missed their deadline or failed so far. Once {@link #hasNext()} has returned
+     * {@code false} this is the final list, and if it is not empty then the iteration did not include all the live
+     * {@link Node}s.
+     *
+     * @return the extensions that missed their deadline or failed.
+     */
+    @NonNull
+    public List<NodeIterator<? extends Node>> getIncomplete() {
+        return Collections.unmodifiableList(new ArrayList<NodeIterator<? extends Node>>(incomplete));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        while (local.hasNext()) {
+            Node node = local.next();
+            if (nodeClass.isInstance(node)) {
+                next = nodeClass.cast(node);
+                return true;
+            }
+        }
+        while (pending > 0) {
+            Arrival arrival;
+            try {
+                arrival = queue.poll(remaining(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abandon(true);
+                return false;
+            }
+            if (arrival == null) {
+                abandon(false);
+            } else if (arrival.source.done) {
+                // abandoned, drop whatever it managed to queue before it was cancelled
+            } else if (arrival.node == null) {
+                arrival.source.done = true;
+                pending--;
+                if (arrival.source.failed) {
+                    incomplete.add(arrival.source.extension);
+                }
+            } else {
+                next = nodeClass.cast(arrival.node);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public N next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return next;
+        } finally {
+            next = null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns how long to wait for the next {@link Node} before the earliest deadline of the extensions still being
+     * iterated.
+     *
+     * @return how long to wait in nanoseconds.
+     */
+    private long remaining() {
+        long now = System.nanoTime();
+        long remaining = timeout;
+        for (Source source : sources) {
+            if (!source.done) {
+                remaining = Math.min(remaining, source.deadline - now);
+            }
+        }
+        return Math.max(0L, remaining);
+    }
+
+    /**
+     * Abandons the extensions that have missed their deadline, whether or not their iteration has started, and drops
+     * their {@link Node}s that have not been returned yet.
+     *
+     * @param all {@code true} to abandon all the extensions still being iterated.
+     */
+    private void abandon(boolean all) {
+        long now = System.nanoTime();
+        boolean cancelled = false;
+        for (Source source : sources) {
+            if (!source.done && (all || now - source.deadline >= 0)) {
+                source.done = true;
+                source.abandoned = true;
+                // a shared iterator that has started must be left to run to its end
+                source.future.cancel(!source.extension.isShared());
+                cancelled = true;
+                pending--;
+                incomplete.add(source.extension);
+                LOGGER.log(Level.FINE, "Abandoned iterating {0} after its deadline", source.extension);
+            }
+        }
+        if (cancelled) {
+            for (Iterator<Arrival> i = queue.iterator(); i.hasNext(); ) {
+                if (i.next().source.done) {
+                    i.remove();
+                }
+            }
+            ExecutorService executor = NodeIteratorExecutor.get();
+            if (executor instanceof ThreadPoolExecutor) {
+                // do not leave the cancelled tasks that never started occupying the work queue
+                ((ThreadPoolExecutor) executor).purge();
+            }
+        }
+    }
+
+    /**
+     * A {@link Node} from a {@link Source}, or the end of the {@link Source}.
+     */
+    private final class Arrival {
+        /**
+         * The source.
+         */
+        @NonNull
+        private final Source source;
+        /**
+         * The {@link Node} or {@code null} if the source has been exhausted.
+         */
+        @CheckForNull
+        private final Node node;
+
+        /**
+         * Constructor.
+         *
+         * @param source the source.
+         * @param node   the {@link Node} or {@code null} if the source has been exhausted.
+         */
+        Arrival(@NonNull Source source, @CheckForNull Node node) {
+            this.source = source;
+            this.node = node;
+        }
+    }
+
+    /**
+     * Iterates one extension into {@link #queue}.
+     */
+    private final class Source implements Runnable {
+        /**
+         * The extension.
+         */
+        @NonNull
+        private final NodeIterator<? extends Node> extension;
+        /**
+         * The task iterating the extension.
+         */
+        private Future<?> future;
+        /**
+         * The {@link System#nanoTime()} by which the extension must have been iterated.
+         */
+        private final long deadline;
+        /**
+         * {@code true} if the extension failed.
+         */
+        private volatile boolean failed;
+        /**
+         * {@code true} once the consumer has stopped waiting for this extension. Only accessed by the consumer.
+         */
+        private boolean done;
+        /**
+         * {@code true} once the consumer has abandoned this extension, so its {@link Node}s are no longer wanted.
+         */
+        private volatile boolean abandoned;
+
+        /**
+         * Constructor.
+         *
+         * @param extension the extension.
+         * @param deadline  the {@link System#nanoTime()} by which the extension must have been iterated.
+         */
+        Source(@NonNull NodeIterator<? extends Node> extension, long deadline) {
+            this.extension = extension;
+            this.deadline = deadline;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void run() {
+            long startedAt = System.nanoTime();
+            try {
+                Thread thread = Thread.currentThread();
+                // only an iterator of our own can be left part way through
+                boolean interruptible = !extension.isShared();
+                for (Iterator<? extends Node> i = extension.open();
+                     !(interruptible && thread.isInterrupted()) && i.hasNext(); ) {
+                    Node node = i.next();
+                    if (!abandoned && nodeClass.isInstance(node)) {
+                        queue.add(new Arrival(this, node));
+                    }
+                }
+                if (!thread.isInterrupted()) {
+                    NodeIteratorMetrics.get().iterated(extension, System.nanoTime() - startedAt);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Could not iterate " + extension, e);
+                NodeIteratorMetrics.get().failed(extension);
+                failed = true;
+            } finally {
+                if (!abandoned) {
+                    queue.add(new Arrival(this, null));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Node;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An iterator that skips the {@link Node}s that have already been returned by an earlier source.
+ *
+ * @param <N> the class type of node.
+ */
+final class DistinctNodeIterator<N extends Node> extends NodeIterator<N> {
+
+    /**
+     * The iterator that may return duplicates.
+     */
+    @NonNull
+    private final Iterator<N> delegate;
+    /**
+     * The {@link Node}s returned so far.
+     */
+    @NonNull
+    private final SeenSet seen;
+    /**
+     * The next node.
+     */
+    @CheckForNull
+    private N next;
+
+    /**
+     * Constructor.
+     *
+     * @param delegate   the iterator that may return duplicates.
+     * @param distinctBy how to recognise a duplicate.
+     * @param expected   the expected number of {@link Node}s.
+     */
+    DistinctNodeIterator(@NonNull Iterator<N> delegate, @NonNull DistinctBy distinctBy, int expected) {
+        this.delegate = delegate;
+        this.seen = new SeenSet(distinctBy, expected);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasNext() {
+        while (next == null && delegate.hasNext()) {
+            N candidate = delegate.next();
+            if (seen.add(candidate)) {
+                next = candidate;
+            }
+        }
+        return next != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public N next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return next;
+        } finally {
+            next = null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
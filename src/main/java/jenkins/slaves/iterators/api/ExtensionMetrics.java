@@ -0,0 +1,148 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Map;
+
+/**
+ * The metrics of one {@link NodeIterator} extension.
+ *
+ * @see NodeIteratorMetrics
+ * @since TODO
+ */
+public final class ExtensionMetrics {
+
+    /**
+     * The class name of the extension.
+     */
+    @NonNull
+    private final String extension;
+    /**
+     * The time taken to exhaust the extension.
+     */
+    @NonNull
+    private final LatencySnapshot iterationLatency;
+    /**
+     * The number of {@link hudson.model.Node}s returned by the extension by class name.
+     */
+    @NonNull
+    private final Map<String, Long> nodeCounts;
+    /**
+     * The time taken by {@link NodeIterator#hasCompleteLiveSet(Class)}.
+     */
+    @NonNull
+    private final LatencySnapshot completenessLatency;
+    /**
+     * The number of times {@link NodeIterator#hasCompleteLiveSet(Class)} returned {@code false}.
+     */
+    private final long incompleteCount;
+    /**
+     * The number of exceptions thrown by the extension.
+     */
+    private final long failureCount;
+
+    /**
+     * Constructor.
+     *
+     * @param extension           the class name of the extension.
+     * @param iterationLatency    the time taken to exhaust the extension.
+     * @param nodeCounts          the number of {@link hudson.model.Node}s returned by the extension by class name.
+     * @param completenessLatency the time taken by {@link NodeIterator#hasCompleteLiveSet(Class)}.
+     * @param incompleteCount     the number of times {@link NodeIterator#hasCompleteLiveSet(Class)} returned
+     *                            {@code false}.
+     * @param failureCount        the number of exceptions thrown by the extension.
+     */
+    ExtensionMetrics(@NonNull String extension, @NonNull LatencySnapshot iterationLatency,
+                     @NonNull Map<String, Long> nodeCounts, @NonNull LatencySnapshot completenessLatency,
+                     long incompleteCount, long failureCount) {
+        this.extension = extension;
+        this.iterationLatency = iterationLatency;
+        this.nodeCounts = nodeCounts;
+        this.completenessLatency = completenessLatency;
+        this.incompleteCount = incompleteCount;
+        this.failureCount = failureCount;
+    }
+
+    /**
+     * Returns the class name of the extension.
+     *
+     * @return the class name of the extension.
+     */
+    @NonNull
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Returns the time taken to iterate the extension until it was exhausted. Iterations that the caller abandoned
+     * before the extension was exhausted are not included.
+     *
+     * @return the time taken to exhaust the extension.
+     */
+    @NonNull
+    public LatencySnapshot getIterationLatency() {
+        return iterationLatency;
+    }
+
+    /**
+     * Returns the number of {@link hudson.model.Node}s returned by the extension, keyed by class name.
+     *
+     * @return the number of {@link hudson.model.Node}s returned by the extension, keyed by class name.
+     */
+    @NonNull
+    public Map<String, Long> getNodeCounts() {
+        return nodeCounts;
+    }
+
+    /**
+     * Returns the time taken by the calls to {@link NodeIterator#hasCompleteLiveSet(Class)} that were not answered
+     * from the cache.
+     *
+     * @return the time taken by {@link NodeIterator#hasCompleteLiveSet(Class)}.
+     */
+    @NonNull
+    public LatencySnapshot getCompletenessLatency() {
+        return completenessLatency;
+    }
+
+    /**
+     * Returns the number of calls to {@link NodeIterator#hasCompleteLiveSet(Class)} that returned {@code false}.
+     *
+     * @return the number of calls to {@link NodeIterator#hasCompleteLiveSet(Class)} that returned {@code false}.
+     */
+    public long getIncompleteCount() {
+        return incompleteCount;
+    }
+
+    /**
+     * Returns the number of exceptions thrown by the extension.
+     *
+     * @return the number of exceptions thrown by the extension.
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+}
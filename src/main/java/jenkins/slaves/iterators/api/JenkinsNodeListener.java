@@ -0,0 +1,117 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.Computer;
+import hudson.model.Node;
+import hudson.model.TaskListener;
+import hudson.slaves.ComputerListener;
+import hudson.slaves.OfflineCause;
+import jenkins.model.NodeListener;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Forwards the changes to the {@link Node}s attached to {@link jenkins.model.Jenkins} to the {@link NodeIterator}
+ * API.
+ */
+@Extension
+@Restricted(NoExternalUse.class)
+public class JenkinsNodeListener extends NodeListener {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onCreated(@NonNull Node node) {
+        NodeEvents.added(null, node);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onUpdated(@NonNull Node oldOne, @NonNull Node newOne) {
+        NodeEvents.replaced(null, oldOne, newOne);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onDeleted(@NonNull Node node) {
+        NodeEvents.removed(null, node);
+    }
+
+    /**
+     * Catches the changes to the {@link Node}s attached to {@link jenkins.model.Jenkins} that are not reported to
+     * {@link NodeListener}s, such as {@link jenkins.model.Jenkins#setNodes(java.util.List)}, and the labels that a
+     * {@link hudson.model.LabelFinder} contributes once a computer is on-line.
+     */
+    @Extension
+    @Restricted(NoExternalUse.class)
+    public static class ConfigurationListener extends ComputerListener {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onConfigurationChange() {
+            NodeSnapshot.invalidate();
+            NodeChangeLog.jenkinsChanged();
+            NodeLabelIndex.jenkinsChanged();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onOnline(Computer c, TaskListener listener) {
+            relabel(c);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onOffline(@NonNull Computer c, @CheckForNull OfflineCause cause) {
+            relabel(c);
+        }
+
+        /**
+         * Re-reads the labels of the {@link Node} of a {@link Computer}.
+         *
+         * @param c the {@link Computer}.
+         */
+        private static void relabel(@NonNull Computer c) {
+            Node node = c.getNode();
+            if (node != null) {
+                NodeLabelIndex.relabel(node);
+            }
+        }
+    }
+}
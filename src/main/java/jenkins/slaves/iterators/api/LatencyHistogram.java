@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock free latency histogram with power of two buckets measured in microseconds.
+ */
+final class LatencyHistogram {
+
+    /**
+     * Bucket {@code i} counts the latencies of less than {@code 2^i} microseconds that did not fit a lower bucket.
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+    /**
+     * The sum of the recorded latencies in microseconds.
+     */
+    private final LongAdder total = new LongAdder();
+    /**
+     * The maximum recorded latency in microseconds.
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds.
+     */
+    void record(long nanos) {
+        long micros = Math.max(0L, TimeUnit.NANOSECONDS.toMicros(nanos));
+        buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(micros));
+        total.add(micros);
+        long previous;
+        while (micros > (previous = max.get()) && !max.compareAndSet(previous, micros)) {
+            // retry
+        }
+    }
+
+    /**
+     * Returns a point in time view of this histogram.
+     *
+     * @return a point in time view of this histogram.
+     */
+    @NonNull
+    LatencySnapshot snapshot() {
+        long[] counts = new long[buckets.length()];
+        long n = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            n += counts[i];
+        }
+        return new LatencySnapshot(n, n == 0 ? 0L : total.sum() / n, max.get(),
+                percentile(counts, n, 0.50), percentile(counts, n, 0.95), percentile(counts, n, 0.99));
+    }
+
+    /**
+     * Estimates a percentile as the upper bound of the bucket containing it.
+     *
+     * @param counts   the bucket counts.
+     * @param n        the sum of the bucket counts.
+     * @param fraction the percentile as a fraction.
+     * @return the estimated percentile in microseconds.
+     */
+    private static long percentile(long[] counts, long n, double fraction) {
+        long rank = (long) Math.ceil(n * fraction);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return i == 0 ? 0L : i >= Long.SIZE - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+            }
+        }
+        return 0L;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+/**
+ * A point in time view of a latency histogram. Percentiles are estimated to within a factor of two.
+ *
+ * @since TODO
+ */
+public final class LatencySnapshot {
+
+    /**
+     * The number of recorded latencies.
+     */
+    private final long count;
+    /**
+     * The mean latency in microseconds.
+     */
+    private final long meanMicros;
+    /**
+     * The maximum latency in microseconds.
+     */
+    private final long maxMicros;
+    /**
+     * The estimated median latency in microseconds.
+     */
+    private final long p50Micros;
+    /**
+     * The estimated 95th percentile latency in microseconds.
+     */
+    private final long p95Micros;
+    /**
+     * The estimated 99th percentile latency in microseconds.
+     */
+    private final long p99Micros;
+
+    /**
+     * Constructor.
+     *
+     * @param count      the number of recorded latencies.
+     * @param meanMicros the mean latency in microseconds.
+     * @param maxMicros  the maximum latency in microseconds.
+     * @param p50Micros  the estimated median latency in microseconds.
+     * @param p95Micros  the estimated 95th percentile latency in microseconds.
+     * @param p99Micros  the estimated 99th percentile latency in microseconds.
+     */
+    LatencySnapshot(long count, long meanMicros, long maxMicros, long p50Micros, long p95Micros, long p99Micros) {
+        this.count = count;
+        this.meanMicros = meanMicros;
+        this.maxMicros = maxMicros;
+        this.p50Micros = p50Micros;
+        this.p95Micros = p95Micros;
+        this.p99Micros = p99Micros;
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the number of recorded latencies.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the mean latency.
+     *
+     * @return the mean latency in microseconds.
+     */
+    public long getMeanMicros() {
+        return meanMicros;
+    }
+
+    /**
+     * Returns the maximum latency.
+     *
+     * @return the maximum latency in microseconds.
+     */
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    /**
+     * Returns the estimated median latency.
+     *
+     * @return the estimated median latency in microseconds.
+     */
+    public long getP50Micros() {
+        return p50Micros;
+    }
+
+    /**
+     * Returns the estimated 95th percentile latency.
+     *
+     * @return the estimated 95th percentile latency in microseconds.
+     */
+    public long getP95Micros() {
+        return p95Micros;
+    }
+
+    /**
+     * Returns the estimated 99th percentile latency.
+     *
+     * @return the estimated 99th percentile latency in microseconds.
+     */
+    public long getP99Micros() {
+        return p99Micros;
+    }
+}
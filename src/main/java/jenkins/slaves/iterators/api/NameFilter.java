@@ -0,0 +1,160 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A counting Bloom filter of names, supporting removal. Membership queries are lock-free, updates must be serialized
+ * by the caller. A query returning {@code false} means the name has definitely not been added, or has been removed as
+ * many times as it was added. Each counter saturates rather than overflowing and is then never decremented, which can
+ * only cause false positives.
+ */
+final class NameFilter {
+
+    /**
+     * The number of hash functions.
+     */
+    private static final int HASHES = 4;
+    /**
+     * The number of counters per name below which the false positive rate is about 2.5%.
+     */
+    private static final int COUNTERS_PER_NAME = 8;
+    /**
+     * The value at which a counter saturates.
+     */
+    private static final int SATURATED = 255;
+
+    /**
+     * The counters, their number being a power of two.
+     */
+    @NonNull
+    private final AtomicIntegerArray counters;
+    /**
+     * The number of names added and not removed.
+     */
+    private int size;
+
+    /**
+     * Creates a filter sized for a number of names.
+     *
+     * @param expected the expected number of names.
+     */
+    NameFilter(int expected) {
+        int length = Integer.highestOneBit(Math.max(64, expected * COUNTERS_PER_NAME - 1)) << 1;
+        this.counters = new AtomicIntegerArray(length);
+    }
+
+    /**
+     * Returns the number of names added and not removed.
+     *
+     * @return the number of names added and not removed.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if the filter is too full for its false positive rate and should be replaced by a larger
+     * one.
+     *
+     * @return {@code true} if the filter should be replaced by a larger one.
+     */
+    boolean isOverloaded() {
+        return size > counters.length() / COUNTERS_PER_NAME;
+    }
+
+    /**
+     * Returns {@code false} if the name has definitely not been added.
+     *
+     * @param name the name.
+     * @return {@code false} if the name has definitely not been added.
+     */
+    boolean mightContain(@NonNull String name) {
+        int mask = counters.length() - 1;
+        int h1 = mix(name.hashCode());
+        int h2 = mix(h1) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            if (counters.get((h1 + i * h2) & mask) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds a name.
+     *
+     * @param name the name.
+     */
+    void add(@NonNull String name) {
+        int mask = counters.length() - 1;
+        int h1 = mix(name.hashCode());
+        int h2 = mix(h1) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int index = (h1 + i * h2) & mask;
+            int count = counters.get(index);
+            if (count < SATURATED) {
+                counters.set(index, count + 1);
+            }
+        }
+        size++;
+    }
+
+    /**
+     * Removes a name that has been added.
+     *
+     * @param name the name.
+     */
+    void remove(@NonNull String name) {
+        int mask = counters.length() - 1;
+        int h1 = mix(name.hashCode());
+        int h2 = mix(h1) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int index = (h1 + i * h2) & mask;
+            int count = counters.get(index);
+            if (count > 0 && count < SATURATED) {
+                counters.set(index, count - 1);
+            }
+        }
+        size--;
+    }
+
+    /**
+     * Spreads the bits of a hash code, using the finalizer of MurmurHash3.
+     *
+     * @param h the hash code.
+     * @return the mixed hash code.
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Node;
+
+/**
+ * A change to the {@link Node}s in the system.
+ *
+ * @see NodeIterator#changesSince(long)
+ * @since TODO
+ */
+public final class NodeChange {
+
+    /**
+     * The kinds of change.
+     */
+    public enum Type {
+        /**
+         * A {@link Node} was added.
+         */
+        ADDED,
+        /**
+         * A {@link Node} was removed.
+         */
+        REMOVED,
+        /**
+         * A {@link Node} was replaced by a new instance.
+         */
+        REPLACED
+    }
+
+    /**
+     * The generation of this change.
+     */
+    private final long generation;
+    /**
+     * The kind of change.
+     */
+    @NonNull
+    private final Type type;
+    /**
+     * The {@link Node} that was replaced.
+     */
+    @CheckForNull
+    private final Node oldNode;
+    /**
+     * The {@link Node} that was added, removed or that replaced {@link #oldNode}.
+     */
+    @NonNull
+    private final Node node;
+
+    /**
+     * Constructor.
+     *
+     * @param generation the generation of this change.
+     * @param type       the kind of change.
+     * @param oldNode    the {@link Node} that was replaced.
+     * @param node       the {@link Node} that was added, removed or that replaced {@code oldNode}.
+     */
+    NodeChange(long generation, @NonNull Type type, @CheckForNull Node oldNode, @NonNull Node node) {
+        this.generation = generation;
+        this.type = type;
+        this.oldNode = oldNode;
+        this.node = node;
+    }
+
+    /**
+     * Returns the generation of this change.
+     *
+     * @return the generation of this change.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the kind of change.
+     *
+     * @return the kind of change.
+     */
+    @NonNull
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the {@link Node} that was replaced.
+     *
+     * @return the {@link Node} that was replaced, or {@code null} unless this is a {@link Type#REPLACED} change.
+     */
+    @CheckForNull
+    public Node getOldNode() {
+        return oldNode;
+    }
+
+    /**
+     * Returns the {@link Node} that was added, removed or that replaced {@link #getOldNode()}.
+     *
+     * @return the {@link Node} that was added, removed or that replaced {@link #getOldNode()}.
+     */
+    @NonNull
+    public Node getNode() {
+        return node;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "NodeChange{" + generation + ", " + type + ", " + node.getNodeName() + '}';
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Node;
+import jenkins.util.SystemProperties;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A bounded ring buffer of the most recent {@link NodeChange}s. Every change, including those that cannot be
+ * itemized, takes the next generation so the slot of a change is simply its generation modulo the capacity.
+ * As {@link jenkins.model.Jenkins#setNodes(java.util.List)} does not notify {@link jenkins.model.NodeListener}s, an
+ * order independent fingerprint of the {@link Node}s attached to {@link jenkins.model.Jenkins} is maintained from the
+ * changes. Once a configuration change has made it suspect it is checked before answering, so that such changes
+ * force a resync rather than being missed.
+ */
+final class NodeChangeLog {
+
+    /**
+     * The number of changes retained.
+     */
+    static final int CAPACITY =
+            Math.max(1, SystemProperties.getInteger(NodeChangeLog.class.getName() + ".capacity", 4096));
+
+    /**
+     * The retained changes, {@code null} slots are changes that cannot be itemized.
+     */
+    private static final NodeChange[] CHANGES = new NodeChange[CAPACITY];
+
+    /**
+     * The current generation.
+     */
+    private static long generation;
+
+    /**
+     * The generation of the most recent change that could not be itemized.
+     */
+    private static long lastUnknown;
+
+    /**
+     * The fingerprint of the {@link Node}s attached to {@link jenkins.model.Jenkins} according to the changes.
+     */
+    private static long jenkinsFingerprint;
+
+    /**
+     * {@code true} if {@link #jenkinsFingerprint} may not match the {@link Node}s attached to
+     * {@link jenkins.model.Jenkins}, as they may have been changed without notifying {@link jenkins.model.NodeListener}s.
+     */
+    private static boolean jenkinsSuspect = true;
+
+    /**
+     * Utility class.
+     */
+    private NodeChangeLog() {
+    }
+
+    /**
+     * Returns the current generation.
+     *
+     * @return the current generation.
+     */
+    static synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Records a change.
+     *
+     * @param jenkins {@code true} if the change is to the {@link Node}s attached to {@link jenkins.model.Jenkins}.
+     * @param type    the kind of change.
+     * @param oldNode the {@link Node} that was replaced.
+     * @param node    the {@link Node} that was added, removed or that replaced {@code oldNode}.
+     */
+    static synchronized void record(boolean jenkins, @NonNull NodeChange.Type type, @CheckForNull Node oldNode,
+                                    @NonNull Node node) {
+        if (jenkins) {
+            if (oldNode != null) {
+                jenkinsFingerprint -= System.identityHashCode(oldNode);
+            }
+            if (type == NodeChange.Type.REMOVED) {
+                jenkinsFingerprint -= System.identityHashCode(node);
+            } else {
+                jenkinsFingerprint += System.identityHashCode(node);
+            }
+        }
+        generation++;
+        CHANGES[(int) (generation % CAPACITY)] = new NodeChange(generation, type, oldNode, node);
+    }
+
+    /**
+     * Called when the configuration of {@link jenkins.model.Jenkins} has changed, which may have replaced the
+     * {@link Node}s attached to it without notifying {@link jenkins.model.NodeListener}s.
+     */
+    static synchronized void jenkinsChanged() {
+        jenkinsSuspect = true;
+    }
+
+    /**
+     * Records a change that cannot be itemized.
+     */
+    static synchronized void recordUnknown() {
+        generation++;
+        CHANGES[(int) (generation % CAPACITY)] = null;
+        lastUnknown = generation;
+    }
+
+    /**
+     * Returns the changes since the specified generation.
+     *
+     * @param since the generation.
+     * @return the changes since the specified generation.
+     */
+    @NonNull
+    static NodeChanges since(long since) {
+        boolean reported = NodeSources.allReportChanges();
+        synchronized (NodeChangeLog.class) {
+            if (jenkinsSuspect) {
+                jenkinsSuspect = false;
+                long fingerprint = 0;
+                for (Node node : NodeSources.jenkinsNodes()) {
+                    fingerprint += System.identityHashCode(node);
+                }
+                if (fingerprint != jenkinsFingerprint) {
+                    jenkinsFingerprint = fingerprint;
+                    recordUnknown();
+                }
+            }
+            if (!reported || since > generation || since < lastUnknown || generation - since > CAPACITY) {
+                return new NodeChanges(generation, true, Collections.<NodeChange>emptyList());
+            }
+            return collect(since);
+        }
+    }
+
+    /**
+     * Collects the retained changes since the specified generation.
+     *
+     * @param since the generation.
+     * @return the changes since the specified generation.
+     */
+    @NonNull
+    private static NodeChanges collect(long since) {
+        List<NodeChange> changes = new ArrayList<NodeChange>((int) (generation - since));
+        for (long g = since + 1; g <= generation; g++) {
+            changes.add(CHANGES[(int) (g % CAPACITY)]);
+        }
+        return new NodeChanges(generation, false, Collections.unmodifiableList(changes));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.List;
+
+/**
+ * The changes to the {@link hudson.model.Node}s in the system since a given generation.
+ *
+ * @see NodeIterator#changesSince(long)
+ * @since TODO
+ */
+public final class NodeChanges {
+
+    /**
+     * The generation that these changes bring the caller up to.
+     */
+    private final long generation;
+    /**
+     * {@code true} if the changes are not available.
+     */
+    private final boolean resyncRequired;
+    /**
+     * The changes.
+     */
+    @NonNull
+    private final List<NodeChange> changes;
+
+    /**
+     * Constructor.
+     *
+     * @param generation     the generation that these changes bring the caller up to.
+     * @param resyncRequired {@code true} if the changes are not available.
+     * @param changes        the changes.
+     */
+    NodeChanges(long generation, boolean resyncRequired, @NonNull List<NodeChange> changes) {
+        this.generation = generation;
+        this.resyncRequired = resyncRequired;
+        this.changes = changes;
+    }
+
+    /**
+     * Returns the generation to pass to the next call of {@link NodeIterator#changesSince(long)}.
+     *
+     * @return the generation that these changes bring the caller up to.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns {@code true} if the changes since the requested generation are no longer available, either because
+     * more changes have happened than are retained or because a source reported a change without saying what
+     * changed. The caller must then perform a full resync by iterating all the {@link hudson.model.Node}s, having
+     * first noted {@link #getGeneration()} so that it can ask for the changes that happen during the resync.
+     *
+     * @return {@code true} if the caller must perform a full resync.
+     */
+    public boolean isResyncRequired() {
+        return resyncRequired;
+    }
+
+    /**
+     * Returns the changes in the order they happened.
+     *
+     * @return the changes in the order they happened, empty if {@link #isResyncRequired()}.
+     */
+    @NonNull
+    public List<NodeChange> getChanges() {
+        return changes;
+    }
+}
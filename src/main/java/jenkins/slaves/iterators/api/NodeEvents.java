@@ -0,0 +1,114 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Node;
+
+/**
+ * Routes the changes reported by {@link NodeIterator} extensions, and the changes to the {@link Node}s attached to
+ * {@link jenkins.model.Jenkins}, to the indexes and caches that the {@link NodeIterator} API maintains.
+ * Every change advances the {@linkplain #generation() generation}.
+ */
+final class NodeEvents {
+
+    /**
+     * Utility class.
+     */
+    private NodeEvents() {
+    }
+
+    /**
+     * Returns the current generation. If two calls return the same value then no change was reported in between.
+     *
+     * @return the current generation.
+     */
+    static long generation() {
+        return NodeChangeLog.generation();
+    }
+
+    /**
+     * A {@link Node} has been added to a source.
+     *
+     * @param source the {@link NodeIterator} extension that is now returning the {@link Node} or {@code null} if the
+     *               {@link Node} was attached to {@link jenkins.model.Jenkins}.
+     * @param node   the {@link Node}.
+     */
+    static void added(@CheckForNull NodeIterator<?> source, @NonNull Node node) {
+        NodeSnapshot.changed(source);
+        NodeChangeLog.record(source == null, NodeChange.Type.ADDED, null, node);
+        NodeLabelIndex.added(source, node);
+        if (source != null) {
+            NodeNameIndex.added(source, node);
+        }
+    }
+
+    /**
+     * A {@link Node} has been removed from a source.
+     *
+     * @param source the {@link NodeIterator} extension that is no longer returning the {@link Node} or {@code null}
+     *               if the {@link Node} was detached from {@link jenkins.model.Jenkins}.
+     * @param node   the {@link Node}.
+     */
+    static void removed(@CheckForNull NodeIterator<?> source, @NonNull Node node) {
+        NodeSnapshot.changed(source);
+        NodeChangeLog.record(source == null, NodeChange.Type.REMOVED, null, node);
+        NodeLabelIndex.removed(source, node);
+        if (source != null) {
+            NodeNameIndex.removed(source, node);
+        }
+    }
+
+    /**
+     * A {@link Node} has been replaced by a new instance in a source.
+     *
+     * @param source  the {@link NodeIterator} extension that is returning the {@link Node} or {@code null} if the
+     *                {@link Node} is attached to {@link jenkins.model.Jenkins}.
+     * @param oldNode the {@link Node} that is no longer returned.
+     * @param newNode the {@link Node} that is returned in its place.
+     */
+    static void replaced(@CheckForNull NodeIterator<?> source, @CheckForNull Node oldNode, @NonNull Node newNode) {
+        NodeSnapshot.changed(source);
+        NodeChangeLog.record(source == null, NodeChange.Type.REPLACED, oldNode, newNode);
+        if (oldNode != null) {
+            NodeLabelIndex.removed(source, oldNode);
+        }
+        NodeLabelIndex.added(source, newNode);
+        if (source != null) {
+            NodeNameIndex.replaced(source, oldNode, newNode);
+        }
+    }
+
+    /**
+     * The {@link Node}s of a source have changed in some unspecified way.
+     *
+     * @param source the {@link NodeIterator} extension.
+     */
+    static void changed(@NonNull NodeIterator<?> source) {
+        NodeSnapshot.changed(source);
+        NodeChangeLog.recordUnknown();
+        NodeLabelIndex.changed();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Node;
+
+import java.io.Serializable;
+
+/**
+ * A filter of {@link Node}s that {@link NodeIterator} extensions can evaluate at the source, so that a
+ * {@link NodeIterator} that "lends" {@link Node} instances to other JVMs need not ship every {@link Node} just for it
+ * to be discarded. Filters are {@link Serializable} so that they can be sent to the remote JVMs.
+ *
+ * @see NodeIterator#iterator(Class, NodeFilter)
+ * @see NodeIterator#filtered(NodeFilter)
+ * @since TODO
+ */
+public interface NodeFilter extends Serializable {
+
+    /**
+     * Returns {@code true} if the {@link Node} should be returned.
+     *
+     * @param node the {@link Node}.
+     * @return {@code true} if the {@link Node} should be returned.
+     */
+    boolean test(@NonNull Node node);
+}
@@ -0,0 +1,339 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import antlr.ANTLRException;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.Label;
+import hudson.model.Node;
+import hudson.model.RootAction;
+import hudson.model.labels.LabelAtom;
+import jenkins.model.Jenkins;
+import net.sf.json.util.JSONUtils;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+import org.kohsuke.stapler.verb.GET;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Exposes all the {@link Node}s in the system, including those not attached to {@link Jenkins}, at
+ * {@code /node-iterator/} for external tools. The response is written while the {@link Node}s are iterated, as a JSON
+ * object or, with {@code format=ndjson} or an {@code Accept: application/x-ndjson} header, as one JSON object per
+ * line. The query parameters are:
+ * <dl>
+ * <dt>{@code type}</dt><dd>the class name of the type of {@link Node} to return, {@link Node} by default.</dd>
+ * <dt>{@code label}</dt><dd>a label expression that the {@link Node}s must match.</dd>
+ * <dt>{@code fields}</dt><dd>a comma separated list of the fields to return, all of them by default.</dd>
+ * </dl>
+ * After the {@link Node}s comes the {@link NodeIterator#isComplete(Class)} of the requested type and of the type of
+ * every {@link Node} returned, as the {@code complete} member of the JSON object or as the last line of NDJSON.
+ */
+@Extension
+@Restricted(NoExternalUse.class)
+public class NodeInventoryAction implements RootAction {
+
+    /**
+     * How many {@link Node}s to write between checks that the client is still reading.
+     */
+    private static final int CHECK_INTERVAL = 256;
+
+    /**
+     * The fields of a {@link Node} that can be returned.
+     */
+    enum Field {
+        /**
+         * {@link Node#getNodeName()}.
+         */
+        NAME("name") {
+            @Override
+            void write(@NonNull Node node, @NonNull PrintWriter out) {
+                out.write(JSONUtils.quote(node.getNodeName()));
+            }
+        },
+        /**
+         * The class of the {@link Node}.
+         */
+        CLASS("class") {
+            @Override
+            void write(@NonNull Node node, @NonNull PrintWriter out) {
+                out.write(JSONUtils.quote(node.getClass().getName()));
+            }
+        },
+        /**
+         * {@link Node#getAssignedLabels()}.
+         */
+        LABELS("labels") {
+            @Override
+            void write(@NonNull Node node, @NonNull PrintWriter out) {
+                out.write('[');
+                boolean first = true;
+                for (LabelAtom atom : node.getAssignedLabels()) {
+                    if (!first) {
+                        out.write(',');
+                    }
+                    first = false;
+                    out.write(JSONUtils.quote(atom.getName()));
+                }
+                out.write(']');
+            }
+        },
+        /**
+         * {@link Node#getNumExecutors()}.
+         */
+        NUM_EXECUTORS("numExecutors") {
+            @Override
+            void write(@NonNull Node node, @NonNull PrintWriter out) {
+                out.print(node.getNumExecutors());
+            }
+        },
+        /**
+         * {@link Node#getMode()}.
+         */
+        MODE("mode") {
+            @Override
+            void write(@NonNull Node node, @NonNull PrintWriter out) {
+                Node.Mode mode = node.getMode();
+                out.write(mode == null ? "null" : JSONUtils.quote(mode.name()));
+            }
+        },
+        /**
+         * {@link Node#getNodeDescription()}.
+         */
+        DESCRIPTION("description") {
+            @Override
+            void write(@NonNull Node node, @NonNull PrintWriter out) {
+                String description = node.getNodeDescription();
+                out.write(description == null ? "null" : JSONUtils.quote(description));
+            }
+        },
+        /**
+         * Whether the {@link Node} is attached to {@link Jenkins}.
+         */
+        ATTACHED("attached") {
+            @Override
+            void write(@NonNull Node node, @NonNull PrintWriter out) {
+                out.print(NodeSources.jenkinsNode(node.getNodeName()) == node);
+            }
+        };
+
+        /**
+         * The name of the field in the JSON.
+         */
+        @NonNull
+        private final String key;
+
+        /**
+         * Constructor.
+         *
+         * @param key the name of the field in the JSON.
+         */
+        Field(@NonNull String key) {
+            this.key = key;
+        }
+
+        /**
+         * Writes the value of the field.
+         *
+         * @param node the {@link Node}.
+         * @param out  where to write the value.
+         */
+        abstract void write(@NonNull Node node, @NonNull PrintWriter out);
+
+        /**
+         * Returns the field with the specified name in the JSON.
+         *
+         * @param key the name of the field in the JSON.
+         * @return the field or {@code null} if there is no such field.
+         */
+        @CheckForNull
+        static Field of(@NonNull String key) {
+            for (Field field : values()) {
+                if (field.key.equals(key)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @CheckForNull
+    public String getIconFileName() {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @CheckForNull
+    public String getDisplayName() {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @NonNull
+    public String getUrlName() {
+        return "node-iterator";
+    }
+
+    /**
+     * Streams the {@link Node}s.
+     *
+     * @param req the request.
+     * @param rsp the response.
+     * @throws IOException if the response could not be written.
+     */
+    @GET
+    public void doIndex(@NonNull StaplerRequest req, @NonNull StaplerResponse rsp) throws IOException {
+        Jenkins jenkins = Jenkins.get();
+        jenkins.checkPermission(Jenkins.SYSTEM_READ);
+        Class<? extends Node> nodeClass = Node.class;
+        String type = req.getParameter("type");
+        if (type != null && !type.isEmpty()) {
+            try {
+                nodeClass = Class.forName(type, false, jenkins.getPluginManager().uberClassLoader)
+                        .asSubclass(Node.class);
+            } catch (ClassNotFoundException | ClassCastException e) {
+                rsp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Not a type of Node: " + type);
+                return;
+            }
+        }
+        Label label = null;
+        String expression = req.getParameter("label");
+        if (expression != null && !expression.isEmpty()) {
+            try {
+                // parsed rather than looked up so that arbitrary requests do not intern labels in Jenkins
+                label = Label.parseExpression(expression);
+            } catch (ANTLRException | IllegalArgumentException e) {
+                rsp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Not a label expression: " + expression);
+                return;
+            }
+        }
+        List<Field> fields = new ArrayList<Field>();
+        String projection = req.getParameter("fields");
+        if (projection == null || projection.isEmpty()) {
+            for (Field field : Field.values()) {
+                fields.add(field);
+            }
+        } else {
+            for (String key : projection.split(",")) {
+                Field field = Field.of(key.trim());
+                if (field == null) {
+                    rsp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown field: " + key);
+                    return;
+                }
+                fields.add(field);
+            }
+        }
+        String format = req.getParameter("format");
+        boolean ndjson = format == null
+                ? String.valueOf(req.getHeader("Accept")).contains("application/x-ndjson")
+                : "ndjson".equals(format.toLowerCase(Locale.ENGLISH));
+
+        rsp.setContentType(ndjson ? "application/x-ndjson;charset=UTF-8" : "application/json;charset=UTF-8");
+        PrintWriter out = rsp.getWriter();
+        Set<Class<? extends Node>> types = new LinkedHashSet<Class<? extends Node>>();
+        types.add(nodeClass);
+        if (!ndjson) {
+            out.write("{\"type\":");
+            out.write(JSONUtils.quote(nodeClass.getName()));
+            out.write(",\"nodes\":[");
+        }
+        // match the label node by node so that the response streams instead of first collecting every match
+        Iterator<? extends Node> nodes = NodeIterator.iterator(nodeClass);
+        int count = 0;
+        while (nodes.hasNext()) {
+            Node node = nodes.next();
+            if (label != null && !label.matches(node)) {
+                continue;
+            }
+            if (count > 0 && !ndjson) {
+                out.write(',');
+            }
+            write(node, fields, out);
+            if (ndjson) {
+                out.write('\n');
+            }
+            types.add(node.getClass());
+            if (++count % CHECK_INTERVAL == 0 && out.checkError()) {
+                // the client has gone away
+                return;
+            }
+        }
+        out.write(ndjson ? "{\"complete\":{" : "],\"complete\":{");
+        boolean first = true;
+        for (Class<? extends Node> t : types) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            out.write(JSONUtils.quote(t.getName()));
+            out.write(':');
+            out.print(NodeIterator.isComplete(t));
+        }
+        out.write(ndjson ? "}}\n" : "}}");
+        out.flush();
+    }
+
+    /**
+     * Writes a {@link Node} as a JSON object.
+     *
+     * @param node   the {@link Node}.
+     * @param fields the fields to write.
+     * @param out    where to write the {@link Node}.
+     */
+    private static void write(@NonNull Node node, @NonNull List<Field> fields, @NonNull PrintWriter out) {
+        out.write('{');
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(JSONUtils.quote(field.key));
+            out.write(':');
+            field.write(node, out);
+        }
+        out.write('}');
+    }
+}
@@ -27,23 +27,86 @@ import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.Extension;
 import hudson.ExtensionPoint;
+import hudson.model.Label;
 import hudson.model.Node;
+import hudson.model.labels.LabelAtom;
 import jenkins.model.Jenkins;
 
+import java.lang.reflect.Modifier;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A class that iterates through all the {@link Node}s in the system, even nodes which are not attached to the main
  * {@link Jenkins} object. If you are holding onto nodes that are not attached to the main {@link Jenkins} object
  * then you need to have an {@link Extension} which extends this class and can iterate through your {@link Node}s.
+ * In most cases the simplest way to do that is to extend {@link NodeRegistry}.
  *
  * @author Stephen Connolly
  */
 public abstract class NodeIterator<N extends Node> implements Iterator<N>, ExtensionPoint {
 
+    /**
+     * Whether a {@link NodeIterator} class overrides {@link #spliterator()}.
+     */
+    private static final ClassValue<Boolean> OVERRIDES_SPLITERATOR = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> c = type; c != null && c != NodeIterator.class; c = c.getSuperclass()) {
+                try {
+                    c.getDeclaredMethod("spliterator");
+                    return Boolean.TRUE;
+                } catch (NoSuchMethodException e) {
+                    // keep looking
+                }
+            }
+            return Boolean.FALSE;
+        }
+    };
+
+    /**
+     * Whether a class of {@link NodeIterator} overrides {@link #getNode(String)}.
+     */
+    private static final ClassValue<Boolean> OVERRIDES_GET_NODE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> c = type; c != null && c != NodeIterator.class; c = c.getSuperclass()) {
+                try {
+                    c.getDeclaredMethod("getNode", String.class);
+                    return Boolean.TRUE;
+                } catch (NoSuchMethodException e) {
+                    // keep looking
+                }
+            }
+            return Boolean.FALSE;
+        }
+    };
+
+    /**
+     * The lazily computed table of which types of {@link Node} this {@link NodeIterator} can return.
+     */
+    @CheckForNull
+    private transient volatile ClassValue<Boolean> compatibility;
+
     /**
      * Returns a new iterator of all the {@link Node}s in the system.
      *
@@ -52,10 +115,7 @@ public abstract class NodeIterator<N extends Node> implements Iterator<N>, Exten
     @SuppressWarnings({"unchecked", "rawtypes"})
     @NonNull
     public static NodeIterator<Node> iterator() {
-        final Jenkins instance = Jenkins.getInstanceOrNull();
-        return instance == null
-                ? new MetaNodeIterator(Collections.emptyIterator(), Node.class)
-                : new MetaNodeIterator(instance.getExtensionList(NodeIterator.class).iterator(), Node.class);
+        return new MetaNodeIterator(Node.class);
     }
 
     /**
@@ -80,10 +140,115 @@ public abstract class NodeIterator<N extends Node> implements Iterator<N>, Exten
     @NonNull
     public static <N extends Node> NodeIterator<N> iterator(@NonNull Class<N> nodeClass) {
         nodeClass.getClass(); // throw NPE if null
-        final Jenkins instance = Jenkins.getInstanceOrNull();
-        return instance == null
-                ? new MetaNodeIterator(Collections.emptyIterator(), nodeClass)
-                : new MetaNodeIterator(instance.getExtensionList(NodeIterator.class).iterator(), nodeClass);
+        return new MetaNodeIterator(nodeClass);
+    }
+
+    /**
+     * Returns a new iterator of all the {@link Node}s in the system of the specified type that match the filter. The
+     * filter is handed to each {@link NodeIterator} extension that can {@linkplain #filtered(NodeFilter) evaluate it
+     * at the source} and is applied locally for all the other sources.
+     *
+     * @param nodeClass the type of {@link Node}
+     * @param filter    the filter.
+     * @param <N>       the class type of node
+     * @return a new iterator of all the matching {@link Node}s in the system.
+     * @since TODO
+     */
+    @NonNull
+    public static <N extends Node> NodeIterator<N> iterator(@NonNull Class<N> nodeClass, @NonNull NodeFilter filter) {
+        filter.getClass(); // throw NPE if null
+        return new MetaNodeIterator<N>(nodeClass, filter);
+    }
+
+    /**
+     * Returns a new iterator of the {@link Node}s in the system of the specified type that belong to one of a number
+     * of shards, by a stable hash of their names. Each {@link Node} belongs to exactly one of the shards, so
+     * the shards can be handed to independent workers. The {@link ShardFilter} is handed to each
+     * {@link NodeIterator} extension that can {@linkplain #filtered(NodeFilter) evaluate it at the source}.
+     *
+     * @param nodeClass  the type of {@link Node}
+     * @param shard      the shard, from {@code 0} to {@code shardCount - 1}.
+     * @param shardCount the number of shards.
+     * @param <N>        the class type of node
+     * @return a new iterator of the {@link Node}s in the system in the specified shard.
+     * @throws IllegalArgumentException if the shard is not one of the shards.
+     * @see ShardFilter#shardOf(String, int)
+     * @since TODO
+     */
+    @NonNull
+    public static <N extends Node> NodeIterator<N> partition(@NonNull Class<N> nodeClass, int shard, int shardCount) {
+        return iterator(nodeClass, new ShardFilter(shard, shardCount));
+    }
+
+    /**
+     * Returns a page of the {@link Node}s in the system of the specified type, with an opaque cursor to continue
+     * from. The cursor records the source and the position within it, so a page costs about as much as its size
+     * whether it is the first or the hundredth page, except for the {@link NodeIterator} extensions that do not
+     * implement {@link #getPage(String, int)}, which have to be walked up to the position again. Pages are not a
+     * snapshot: {@link Node}s that are added or removed between pages may or may not be seen.
+     *
+     * @param nodeClass the type of {@link Node}
+     * @param cursor    the cursor returned with the previous page or {@code null} for the first page.
+     * @param limit     the maximum number of {@link Node}s in the page.
+     * @param <N>       the class type of node
+     * @return the page.
+     * @throws IllegalArgumentException if the limit is not positive or the cursor is not valid, for example because
+     *                                  its source has since been removed.
+     * @throws IllegalStateException    if an extension returns an empty page from {@link #getPage(String, int)}
+     *                                  that is not its last.
+     * @since TODO
+     */
+    @NonNull
+    public static <N extends Node> NodePage<N> page(@NonNull Class<N> nodeClass, @CheckForNull String cursor,
+                                                    int limit) {
+        nodeClass.getClass(); // throw NPE if null
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive: " + limit);
+        }
+        return NodePager.page(nodeClass, cursor, limit);
+    }
+
+    /**
+     * Returns a new iterator of all the {@link Node}s in the system that returns each {@link Node} only once, even if
+     * it is both attached to the main {@link Jenkins} object and returned by a {@link NodeIterator} extension, or is
+     * returned by more than one extension. The first source to return a {@link Node} wins. The iterator remembers
+     * every {@link Node} it has returned in a compact table of about 10 bytes per {@link Node}, so memory use grows
+     * linearly with the number of {@link Node}s: around 1 MiB for 100,000 {@link Node}s.
+     *
+     * @param nodeClass  the type of {@link Node}
+     * @param distinctBy how to recognise the same {@link Node} from different sources.
+     * @param <N>        the class type of node
+     * @return a new iterator of all the distinct {@link Node}s in the system.
+     * @since TODO
+     */
+    @NonNull
+    public static <N extends Node> NodeIterator<N> iterator(@NonNull Class<N> nodeClass,
+                                                           @NonNull DistinctBy distinctBy) {
+        nodeClass.getClass(); // throw NPE if null
+        distinctBy.getClass(); // throw NPE if null
+        return new DistinctNodeIterator<N>(iterator(nodeClass), distinctBy, NodeSources.jenkinsNodes().size());
+    }
+
+    /**
+     * Returns a new iterator of all the {@link Node}s in the system that iterates the {@link NodeIterator} extensions
+     * concurrently, so that one slow extension does not delay the {@link Node}s of all the others. Any extension that
+     * takes longer than the specified timeout is abandoned and reported by
+     * {@link ConcurrentNodeIterator#getIncomplete()}.
+     *
+     * @param nodeClass the type of {@link Node}
+     * @param timeout   the deadline of each extension.
+     * @param unit      the unit of {@code timeout}.
+     * @param <N>       the class type of node
+     * @return a new iterator of all the {@link Node}s in the system.
+     * @since TODO
+     */
+    @NonNull
+    public static <N extends Node> ConcurrentNodeIterator<N> concurrentIterator(@NonNull Class<N> nodeClass,
+                                                                                long timeout,
+                                                                                @NonNull TimeUnit unit) {
+        nodeClass.getClass(); // throw NPE if null
+        unit.getClass(); // throw NPE if null
+        return new ConcurrentNodeIterator<N>(nodeClass, NodeSources.extensions(nodeClass), timeout, unit);
     }
 
     /**
@@ -102,6 +267,307 @@ public abstract class NodeIterator<N extends Node> implements Iterator<N>, Exten
         return new NodeIterable(nodeClass);
     }
 
+    /**
+     * Returns a new stream of all the {@link Node}s in the system. The stream is backed by a {@link Spliterator} that
+     * splits across the {@link NodeIterator} extensions and then within {@link Jenkins#getNodes()} so that a
+     * {@link Stream#parallel()} stream will actually spread the work.
+     *
+     * @return a new stream of all the {@link Node}s in the system.
+     * @since TODO
+     */
+    @NonNull
+    public static Stream<Node> stream() {
+        return stream(Node.class);
+    }
+
+    /**
+     * Returns a new stream of all the {@link Node}s in the system of the specified type. The stream is backed by a
+     * {@link Spliterator} that splits across the {@link NodeIterator} extensions and then within
+     * {@link Jenkins#getNodes()} so that a {@link Stream#parallel()} stream will actually spread the work. A legacy
+     * extension that iterates itself rather than overriding {@link #spliterator()} only starts over once it has been
+     * exhausted, so it is walked to its end as soon as the stream reaches it, even by a short-circuiting operation
+     * such as {@link Stream#findFirst()}.
+     *
+     * @param nodeClass the type of {@link Node}
+     * @param <N> the class type of node
+     *
+     * @return a new stream of all the {@link Node}s in the system of the specified type.
+     * @since TODO
+     */
+    @NonNull
+    public static <N extends Node> Stream<N> stream(@NonNull Class<N> nodeClass) {
+        nodeClass.getClass(); // throw NPE if null
+        List<NodeIterator<? extends Node>> extensions = NodeSources.extensions(nodeClass);
+        @SuppressWarnings("unchecked")
+        Spliterator<? extends Node>[] sources = new Spliterator[extensions.size() + 1];
+        sources[0] = NodeSources.jenkinsNodes().spliterator();
+        for (int i = 0; i < extensions.size(); i++) {
+            sources[i + 1] = extensions.get(i).streamSpliterator();
+        }
+        return StreamSupport.stream(new NodeSpliterator<N>(nodeClass, sources, 0, sources.length), false);
+    }
+
+    /**
+     * Returns a {@link java.util.concurrent.Flow.Publisher} of all the {@link Node}s of a specific type in the system,
+     * even nodes which are not attached to the main {@link Jenkins} object. Each subscriber gets its own walk of the
+     * extensions which is only advanced as far as the subscriber has requested.
+     *
+     * @param nodeClass the type of {@link Node}
+     * @param <N>       the class type of node
+     * @return a publisher of all the {@link Node}s of the specified type.
+     * @since TODO
+     */
+    @NonNull
+    public static <N extends Node> NodePublisher<N> publisher(@NonNull Class<N> nodeClass) {
+        nodeClass.getClass(); // throw NPE if null
+        return new NodePublisher<N>(nodeClass);
+    }
+
+    /**
+     * Returns all the {@link Node}s in the system that match the specified {@link Label}, including those that are
+     * not attached to the main {@link Jenkins} object. Label expressions are evaluated against an index of the
+     * {@link LabelAtom}s of each {@link Node} rather than by matching every {@link Node}.
+     *
+     * @param label the {@link Label}, typically from {@link Label#parseExpression(String)}.
+     * @return the {@link Node}s matching the {@link Label}.
+     * @since TODO
+     */
+    @NonNull
+    public static List<Node> nodes(@NonNull Label label) {
+        label.getClass(); // throw NPE if null
+        return Collections.unmodifiableList(NodeLabelIndex.nodes(label));
+    }
+
+    /**
+     * Counts the {@link Node}s in the system that match the specified {@link Label}, including those that are not
+     * attached to the main {@link Jenkins} object.
+     *
+     * @param label the {@link Label}, typically from {@link Label#parseExpression(String)}.
+     * @return the number of {@link Node}s matching the {@link Label}.
+     * @see #nodes(Label)
+     * @since TODO
+     */
+    public static int count(@NonNull Label label) {
+        label.getClass(); // throw NPE if null
+        return NodeLabelIndex.count(label);
+    }
+
+    /**
+     * Returns the {@link Node} with the specified name, even if the {@link Node} is not attached to the main
+     * {@link Jenkins} object.
+     *
+     * @param name the name of the {@link Node}.
+     * @return the {@link Node} or {@code null} if there is no such {@link Node}.
+     * @since TODO
+     */
+    @CheckForNull
+    public static Node findByName(@NonNull String name) {
+        return findByName(Node.class, name);
+    }
+
+    /**
+     * Returns the {@link Node} of the specified type with the specified name, even if the {@link Node} is not
+     * attached to the main {@link Jenkins} object. The {@link Node}s attached to the main {@link Jenkins} object are
+     * checked first and then each {@link NodeIterator} extension is {@linkplain #getNode(String) asked}.
+     *
+     * @param nodeClass the type of {@link Node}
+     * @param name      the name of the {@link Node}.
+     * @param <N>       the class type of node
+     * @return the {@link Node} or {@code null} if there is no such {@link Node} of the specified type.
+     * @since TODO
+     */
+    @CheckForNull
+    public static <N extends Node> N findByName(@NonNull Class<N> nodeClass, @NonNull String name) {
+        nodeClass.getClass(); // throw NPE if null
+        name.getClass(); // throw NPE if null
+        Node node = NodeSources.jenkinsNode(name);
+        if (nodeClass.isInstance(node)) {
+            return nodeClass.cast(node);
+        }
+        for (NodeIterator<? extends Node> extension : NodeSources.extensions(nodeClass)) {
+            node = extension.getNode(name);
+            if (nodeClass.isInstance(node)) {
+                return nodeClass.cast(node);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a consistent, possibly slightly stale, view of all the {@link Node}s in the system. The view is cached
+     * and shared between callers until a change is reported, so repeated calls are cheap. Use {@link #iterator()}
+     * when an up to date view is required.
+     *
+     * @return a consistent view of all the {@link Node}s in the system.
+     * @since TODO
+     */
+    @NonNull
+    public static NodeSnapshot<Node> snapshot() {
+        return NodeSnapshot.current();
+    }
+
+    /**
+     * Returns a consistent, possibly slightly stale, view of all the {@link Node}s of the specified type in the
+     * system, stamped with the {@link #generation()} at which it was taken. The view has random access and a known
+     * size, and shares the {@link Node}s of every source that has not changed with the previous view.
+     *
+     * @param nodeClass the type of {@link Node}
+     * @param <N>       the class type of node
+     * @return a consistent view of all the {@link Node}s of the specified type in the system.
+     * @see #snapshot()
+     * @since TODO
+     */
+    @NonNull
+    public static <N extends Node> NodeSnapshot<N> snapshot(@NonNull Class<N> nodeClass) {
+        nodeClass.getClass(); // throw NPE if null
+        return NodeSnapshot.current(nodeClass);
+    }
+
+    /**
+     * Returns {@code false} if there is definitely no {@link Node} with the specified name in the system, including
+     * nodes which are not attached to the main {@link Jenkins} object. The names of the {@link Node}s of the
+     * extensions that {@linkplain #reportsChanges() report their changes} are kept in a counting Bloom filter, so for
+     * a name that is not in use this is answered without asking each of those extensions. Of the other extensions,
+     * only those that override {@link #getNode(String)} to look up their {@link Node}s directly are asked; any other
+     * extension could only answer by iterating all of its {@link Node}s, so its presence makes the result
+     * {@code true}. A {@code true} result may be a false positive, use {@link #findByName(String)} where an exact
+     * answer is needed.
+     *
+     * @param name the name of the {@link Node}.
+     * @return {@code false} if there is definitely no {@link Node} with the specified name.
+     * @since TODO
+     */
+    public static boolean mightContain(@NonNull String name) {
+        name.getClass(); // throw NPE if null
+        if (NodeSources.jenkinsNode(name) != null || NodeNameIndex.mightContain(name)) {
+            return true;
+        }
+        for (NodeIterator<? extends Node> extension : NodeSources.extensions()) {
+            if (!extension.reportsChanges()
+                    && (!OVERRIDES_GET_NODE.get(extension.getClass()) || extension.getNode(name) != null)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the current generation of the {@link Node}s in the system. The generation advances every time a change
+     * is reported, either to the {@link Node}s attached to the main {@link Jenkins} object or by a
+     * {@link NodeIterator} extension.
+     *
+     * @return the current generation.
+     * @see #changesSince(long)
+     * @since TODO
+     */
+    public static long generation() {
+        return NodeEvents.generation();
+    }
+
+    /**
+     * Returns the changes to the {@link Node}s in the system since the specified generation. A reconciler would
+     * typically note the {@link #generation()}, iterate all the {@link Node}s once and then ask for the changes since
+     * the noted generation on every subsequent cycle, falling back to a full iteration whenever
+     * {@link NodeChanges#isResyncRequired()}. A resync is always required while there are {@link NodeIterator}
+     * extensions that do not {@linkplain #reportsChanges() report their changes}.
+     *
+     * @param generation the generation from {@link #generation()} or a previous {@link NodeChanges#getGeneration()}.
+     * @return the changes since the specified generation.
+     * @since TODO
+     */
+    @NonNull
+    public static NodeChanges changesSince(long generation) {
+        return NodeChangeLog.since(generation);
+    }
+
+    /**
+     * Returns the first {@link Node} of the specified type that matches the predicate. The sources are opened one at a
+     * time, starting with the {@link Node}s attached to the main {@link Jenkins} object, and no further sources are
+     * opened once a match has been found, which avoids any remote calls that the remaining {@link NodeIterator}
+     * extensions would have made. A legacy extension that iterates itself rather than overriding
+     * {@link #spliterator()} only starts over once it has been exhausted, so if the match comes from such an extension
+     * the rest of its {@link Node}s are still walked.
+     *
+     * @param nodeClass the type of {@link Node}
+     * @param predicate the predicate.
+     * @param <N>       the class type of node
+     * @return the first matching {@link Node} or {@code null} if there is none.
+     * @since TODO
+     */
+    @CheckForNull
+    public static <N extends Node> N findFirst(@NonNull Class<N> nodeClass, @NonNull Predicate<? super N> predicate) {
+        predicate.getClass(); // throw NPE if null
+        MetaNodeIterator<N> i = new MetaNodeIterator<N>(nodeClass);
+        while (i.hasNext()) {
+            N node = i.next();
+            if (predicate.test(node)) {
+                i.abandon();
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns {@code true} if any {@link Node} of the specified type matches the predicate, opening no further sources
+     * once a match has been found.
+     *
+     * @param nodeClass the type of {@link Node}
+     * @param predicate the predicate.
+     * @param <N>       the class type of node
+     * @return {@code true} if any {@link Node} of the specified type matches the predicate.
+     * @see #findFirst(Class, Predicate)
+     * @since TODO
+     */
+    public static <N extends Node> boolean anyMatch(@NonNull Class<N> nodeClass,
+                                                    @NonNull Predicate<? super N> predicate) {
+        return findFirst(nodeClass, predicate) != null;
+    }
+
+    /**
+     * Counts the {@link Node}s of the specified type in the system, including those that are not attached to the main
+     * {@link Jenkins} object. Extensions that implement {@link #countNodes(Class)} are asked for their count rather
+     * than iterated.
+     *
+     * @param nodeClass the type of {@link Node}
+     * @param <N>       the class type of node
+     * @return the number of {@link Node}s of the specified type.
+     * @since TODO
+     */
+    public static <N extends Node> long count(@NonNull Class<N> nodeClass) {
+        nodeClass.getClass(); // throw NPE if null
+        long count = 0;
+        for (Node node : NodeSources.jenkinsNodes()) {
+            if (nodeClass.isInstance(node)) {
+                count++;
+            }
+        }
+        for (NodeIterator<? extends Node> extension : NodeSources.extensions(nodeClass)) {
+            count += extension.countOf(nodeClass);
+        }
+        return count;
+    }
+
+    /**
+     * Counts the {@link Node}s in the system by their concrete type, including those that are not attached to the
+     * main {@link Jenkins} object. Extensions that only declare {@code final} {@link #getNodeTypes()} and implement
+     * {@link #countNodes(Class)} for each of them are asked for their counts rather than iterated.
+     *
+     * @return the number of {@link Node}s of each concrete type.
+     * @since TODO
+     */
+    @NonNull
+    public static Map<Class<? extends Node>, Long> countsByType() {
+        Map<Class<? extends Node>, Long> counts = new HashMap<Class<? extends Node>, Long>();
+        for (Node node : NodeSources.jenkinsNodes()) {
+            add(counts, node.getClass(), 1);
+        }
+        for (NodeIterator<? extends Node> extension : NodeSources.extensions()) {
+            extension.countByType(counts);
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
     /**
      * Returns {@code true} if and only if {@link jenkins.slaves.iterators.api.NodeIterator#iterator()} will iterate
      * all live instances of {@code Node}. This is useful if you want to resolve any backing resources that do not
@@ -122,7 +588,8 @@ public abstract class NodeIterator<N extends Node> implements Iterator<N>, Exten
      * all live instances of the specified subtype of {@link Node}. This is useful if you want to resolve any backing
      * resources that do not have a corresponding {@link Node} instance. If this method returns {@code false} then it
      * will not be possible to definitively determine the complete live set and hence it will not be possible to
-     * definitively identify unused backing resources.
+     * definitively identify unused backing resources. The answer of each {@link NodeIterator} extension is cached for
+     * a short time, see {@link #fireCompletenessChanged()}.
      *
      * @param nodeClass the type of {@link Node}
      * @param <N> the class type of node
@@ -134,12 +601,126 @@ public abstract class NodeIterator<N extends Node> implements Iterator<N>, Exten
     @SuppressWarnings({"unchecked", "rawtypes"})
     public static <N extends Node> boolean isComplete(@NonNull Class<N> nodeClass) {
         nodeClass.getClass(); // throw NPE if null
-        final Jenkins instance = Jenkins.getInstanceOrNull();
-        if (instance == null) {
+        if (!NodeSources.isAvailable()) {
             return false;
         }
-        for (NodeIterator iterator : instance.getExtensionList(NodeIterator.class)) {
-            if (!iterator.hasCompleteLiveSet(nodeClass)) {
+        for (NodeIterator iterator : NodeSources.extensions(nodeClass)) {
+            if (!CompletenessCache.hasCompleteLiveSet(iterator, nodeClass)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Asynchronous version of {@link #isComplete(Class)} that asks all the {@link NodeIterator} extensions in parallel
+     * and completes with {@code false} as soon as any of them reports that it cannot currently return its complete
+     * live set. An extension that fails to answer is treated as incomplete.
+     *
+     * @param nodeClass the type of {@link Node}
+     * @param <N> the class type of node
+     *
+     * @return a future that completes with {@code true} if and only if
+     *         {@link jenkins.slaves.iterators.api.NodeIterator#iterator()} will iterate all live instances of
+     *         {@code Node}.
+     * @since TODO
+     */
+    @NonNull
+    public static <N extends Node> CompletableFuture<Boolean> isCompleteAsync(@NonNull final Class<N> nodeClass) {
+        nodeClass.getClass(); // throw NPE if null
+        if (!NodeSources.isAvailable()) {
+            return CompletableFuture.completedFuture(Boolean.FALSE);
+        }
+        List<NodeIterator<? extends Node>> extensions = NodeSources.extensions(nodeClass);
+        if (extensions.isEmpty()) {
+            return CompletableFuture.completedFuture(Boolean.TRUE);
+        }
+        final CompletableFuture<Boolean> result = new CompletableFuture<Boolean>();
+        final AtomicInteger remaining = new AtomicInteger(extensions.size());
+        ExecutorService executor = NodeIteratorExecutor.get();
+        for (final NodeIterator<? extends Node> extension : extensions) {
+            CompletableFuture.supplyAsync(new Supplier<Boolean>() {
+                @Override
+                public Boolean get() {
+                    return CompletenessCache.hasCompleteLiveSet(extension, nodeClass);
+                }
+            }, executor).whenComplete(new BiConsumer<Boolean, Throwable>() {
+                @Override
+                public void accept(Boolean complete, Throwable failure) {
+                    if (failure != null || !complete) {
+                        result.complete(Boolean.FALSE);
+                    } else if (remaining.decrementAndGet() == 0) {
+                        result.complete(Boolean.TRUE);
+                    }
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Identifies the backing resources that no {@link Node} in the system is using. The resource identifiers are
+     * read first, then every {@link Node} of the specified type is walked once and its key removed from them, so
+     * memory use is bounded by the number of resources rather than the product of resources and {@link Node}s.
+     * As a resource that is only in use by a {@link Node} which cannot currently be iterated would otherwise be
+     * reported as unused, no answer is given unless every extension reports through
+     * {@link #hasCompleteLiveSet(Class)} that it is complete both before and after the walk. Unlike
+     * {@link #isComplete(Class)}, the extensions are always asked rather than answered from a cache.
+     * Callers should list their resources <em>before</em> calling this method so that a resource provisioned during
+     * the walk cannot be mistaken for an orphan.
+     *
+     * @param nodeClass   the type of {@link Node} that uses the resources.
+     * @param resourceIds the identifiers of the backing resources.
+     * @param key         the identifier of the backing resource of a {@link Node}, or {@code null} if the
+     *                    {@link Node} does not use one of the resources.
+     * @param <N>         the class type of node
+     * @param <K>         the type of the resource identifiers
+     * @return the identifiers of the resources that no {@link Node} is using, in their original order, or
+     *         {@code null} if the complete live set of {@link Node}s could not be determined.
+     * @since TODO
+     */
+    @CheckForNull
+    public static <N extends Node, K> Set<K> orphans(@NonNull Class<N> nodeClass, @NonNull Stream<K> resourceIds,
+                                                     @NonNull Function<? super N, ? extends K> key) {
+        nodeClass.getClass(); // throw NPE if null
+        resourceIds.getClass(); // throw NPE if null
+        key.getClass(); // throw NPE if null
+        if (!isCompleteNow(nodeClass)) {
+            return null;
+        }
+        final Set<K> orphans = new LinkedHashSet<K>();
+        resourceIds.forEachOrdered(new Consumer<K>() {
+            @Override
+            public void accept(K resourceId) {
+                orphans.add(resourceId);
+            }
+        });
+        for (Iterator<N> i = iterator(nodeClass); i.hasNext(); ) {
+            K resourceId = key.apply(i.next());
+            if (resourceId != null) {
+                orphans.remove(resourceId);
+            }
+        }
+        if (!isCompleteNow(nodeClass)) {
+            // an extension lost its connection during the walk, so some nodes may have been missed
+            return null;
+        }
+        return Collections.unmodifiableSet(orphans);
+    }
+
+    /**
+     * Asks every {@link NodeIterator} extension that could return the specified type of {@link Node} whether it can
+     * currently return its complete live set, bypassing the cached answers used by {@link #isComplete(Class)}.
+     *
+     * @param nodeClass the type of {@link Node}
+     * @return {@code true} if and only if every extension can currently return its complete live set.
+     */
+    private static boolean isCompleteNow(@NonNull Class<? extends Node> nodeClass) {
+        if (!NodeSources.isAvailable()) {
+            return false;
+        }
+        for (NodeIterator<? extends Node> extension : NodeSources.extensions(nodeClass)) {
+            if (!CompletenessCache.probe(extension, nodeClass)) {
                 return false;
             }
         }
@@ -166,9 +747,362 @@ public abstract class NodeIterator<N extends Node> implements Iterator<N>, Exten
     }
 
     /**
-     * The internal iterator that loops through all the known NodeIterator extensions.
+     * Reports that the result of {@link #hasCompleteLiveSet(Class)} may have changed, for example because a
+     * connection to a remote JVM has been lost or re-established. Implementers that override
+     * {@link #hasCompleteLiveSet(Class)} should call this method on every such change as the results are cached
+     * for a short time. Any {@link NodeIteratorCompletenessListener} is notified once the new state has been asked
+     * for in the background, implementers that know the new state should use
+     * {@link #fireCompletenessChanged(Class, boolean)} instead.
+     *
+     * @since TODO
+     */
+    protected final void fireCompletenessChanged() {
+        CompletenessCache.invalidate(this);
+        CompletenessHistory.get().reobserve(this);
+    }
+
+    /**
+     * Publishes a change in whether this {@link NodeIterator} can return its complete live set of a type of
+     * {@link Node}, for example because the connection to the remote JVM that it "lends" that type to has been
+     * re-established. The new state is used by {@link #isComplete(Class)} until it next asks
+     * {@link #hasCompleteLiveSet(Class)} and is passed on to every {@link NodeIteratorCompletenessListener}, so that
+     * clean up of unused resources can resume without waiting for a poll. Implementers should still override
+     * {@link #hasCompleteLiveSet(Class)} to return the same state.
+     *
+     * @param nodeClass the type of {@link Node}.
+     * @param complete  {@code true} if this {@link NodeIterator} can now return all its {@link Node} instances of the
+     *                  specified type.
+     * @since TODO
+     */
+    protected final void fireCompletenessChanged(@NonNull Class<? extends Node> nodeClass, boolean complete) {
+        nodeClass.getClass(); // throw NPE if null
+        CompletenessCache.update(this, nodeClass, complete);
+        CompletenessHistory.get().observed(this, nodeClass, complete);
+    }
+
+    /**
+     * Implementers of {@link NodeIterator} should override this method if they only "lend" specific sub-types of
+     * {@link Node}. The declared types are used to skip this {@link NodeIterator} entirely when iterating, or checking
+     * the completeness of, a type of {@link Node} that it can never return. Implementers must declare every type of
+     * {@link Node} that they can return, declaring a super-type is always safe.
+     *
+     * @return the types of {@link Node} that this {@link NodeIterator} can return.
+     * @since TODO
+     */
+    @NonNull
+    protected Set<Class<? extends Node>> getNodeTypes() {
+        return Collections.<Class<? extends Node>>singleton(Node.class);
+    }
+
+    /**
+     * Implementers of {@link NodeIterator} should override this method and return {@code true} if they call
+     * {@link #fireNodeAdded(Node)}, {@link #fireNodeRemoved(Node)} and {@link #fireNodeReplaced(Node, Node)} for
+     * every {@link Node} that they start or stop returning. This allows the {@link NodeIterator} API to answer
+     * queries from its indexes and caches rather than iterating this {@link NodeIterator}. The answer is read when the
+     * extensions are resolved, so it must not change during the lifetime of this {@link NodeIterator}.
+     *
+     * @return {@code true} if and only if this {@link NodeIterator} reports every change to the {@link Node}s it
+     *         returns.
+     * @since TODO
+     */
+    protected boolean reportsChanges() {
+        return false;
+    }
+
+    /**
+     * Reports that this {@link NodeIterator} has started returning a {@link Node}.
+     *
+     * @param node the {@link Node}.
+     * @since TODO
+     */
+    protected final void fireNodeAdded(@NonNull Node node) {
+        node.getClass(); // throw NPE if null
+        NodeEvents.added(this, node);
+    }
+
+    /**
+     * Reports that this {@link NodeIterator} has stopped returning a {@link Node}.
+     *
+     * @param node the {@link Node}.
+     * @since TODO
+     */
+    protected final void fireNodeRemoved(@NonNull Node node) {
+        node.getClass(); // throw NPE if null
+        NodeEvents.removed(this, node);
+    }
+
+    /**
+     * Reports that this {@link NodeIterator} is returning a new instance in place of a {@link Node}.
+     *
+     * @param oldNode the {@link Node} that is no longer returned.
+     * @param newNode the {@link Node} that is returned in its place.
+     * @since TODO
+     */
+    protected final void fireNodeReplaced(@NonNull Node oldNode, @NonNull Node newNode) {
+        oldNode.getClass(); // throw NPE if null
+        newNode.getClass(); // throw NPE if null
+        NodeEvents.replaced(this, oldNode, newNode);
+    }
+
+    /**
+     * Reports that the {@link Node}s returned by this {@link NodeIterator} have changed in a way that was not
+     * reported through {@link #fireNodeAdded(Node)}, {@link #fireNodeRemoved(Node)} or
+     * {@link #fireNodeReplaced(Node, Node)}, for example after reconnecting to a remote JVM.
+     *
+     * @since TODO
+     */
+    protected final void fireNodesChanged() {
+        NodeEvents.changed(this);
+    }
+
+    /**
+     * Implementers of {@link NodeIterator} should override this method if they can evaluate a {@link NodeFilter} at
+     * the source, for example by sending it to the remote JVMs they "lend" {@link Node} instances to, so that only
+     * the matching {@link Node} instances are returned. Implementers that cannot evaluate a particular filter should
+     * return {@code null} and the filter will be applied locally.
+     *
+     * @param filter the filter.
+     * @return a new iterator of only the {@link Node} instances of this {@link NodeIterator} that match the filter,
+     *         or {@code null} if this {@link NodeIterator} cannot evaluate the filter.
+     * @since TODO
+     */
+    @CheckForNull
+    protected Iterator<? extends Node> filtered(@NonNull NodeFilter filter) {
+        return null;
+    }
+
+    /**
+     * Implementers of {@link NodeIterator} should override this method if they can count the {@link Node} instances
+     * they return without iterating them, for example from their own bookkeeping. The count should be exact, an
+     * estimate is only acceptable where the implementer has no way to know the exact count without iterating.
+     *
+     * @param nodeClass the type of {@link Node}.
+     * @return the number of {@link Node} instances of the specified type that this {@link NodeIterator} returns, or
+     *         {@code -1} if this {@link NodeIterator} cannot count them without iterating.
+     * @since TODO
+     */
+    protected long countNodes(@NonNull Class<? extends Node> nodeClass) {
+        return -1;
+    }
+
+    /**
+     * Implementers of {@link NodeIterator} should override this method if they can return their {@link Node}
+     * instances a page at a time from a position, without walking the preceding {@link Node} instances. The
+     * position is opaque to the {@link NodeIterator} API, it is only stored in the cursors returned by
+     * {@link #page(Class, String, int)} and handed back to get the next page, so it must remain meaningful for as
+     * long as such a cursor may be used.
+     *
+     * @param position the position returned with the previous page or {@code null} for the first page.
+     * @param limit    the maximum number of {@link Node} instances to return.
+     * @return at most {@code limit} {@link Node} instances and the position after them, or {@code null} as the
+     *         position of the last page; or {@code null} if this {@link NodeIterator} cannot return pages. Only the
+     *         last page may be empty.
+     * @since TODO
+     */
+    @CheckForNull
+    protected NodePage<? extends Node> getPage(@CheckForNull String position, int limit) {
+        return null;
+    }
+
+    /**
+     * Implementers of {@link NodeIterator} should override this method if they can look up the {@link Node} instances
+     * they return by name without iterating them. The default implementation uses the names reported through
+     * {@link #fireNodeAdded(Node)} when this {@link NodeIterator} {@link #reportsChanges()} and otherwise iterates
+     * this {@link NodeIterator}.
+     *
+     * @param name the name of the {@link Node}.
+     * @return the {@link Node} with the specified name or {@code null} if this {@link NodeIterator} does not return
+     *         such a {@link Node}.
+     * @since TODO
+     */
+    @CheckForNull
+    protected Node getNode(@NonNull String name) {
+        if (reportsChanges()) {
+            return NodeNameIndex.get(this, name);
+        }
+        Node found = null;
+        for (Iterator<? extends Node> i = open(); i.hasNext(); ) {
+            Node node = i.next();
+            if (found == null && name.equals(node.getNodeName())) {
+                found = node;
+                if (!isShared()) {
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Counts the {@link Node} instances of the specified type that this {@link NodeIterator} returns, using
+     * {@link #countNodes(Class)} or the size of a {@link Spliterator#SIZED} {@link #spliterator()} where possible.
+     *
+     * @param nodeClass the type of {@link Node}.
+     * @return the number of {@link Node} instances of the specified type.
+     */
+    final long countOf(@NonNull Class<? extends Node> nodeClass) {
+        long count = countNodes(nodeClass);
+        if (count >= 0) {
+            return count;
+        }
+        Iterator<? extends Node> iterator;
+        if (OVERRIDES_SPLITERATOR.get(getClass())) {
+            Spliterator<? extends Node> spliterator = spliterator();
+            count = spliterator.getExactSizeIfKnown();
+            if (count >= 0 && returnsOnly(nodeClass)) {
+                return count;
+            }
+            iterator = Spliterators.iterator(spliterator);
+        } else {
+            iterator = this;
+        }
+        count = 0;
+        while (iterator.hasNext()) {
+            if (nodeClass.isInstance(iterator.next())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds the {@link Node} instances that this {@link NodeIterator} returns to counts by concrete type.
+     *
+     * @param counts the counts to add to.
+     */
+    final void countByType(@NonNull Map<Class<? extends Node>, Long> counts) {
+        Set<Class<? extends Node>> nodeTypes = getNodeTypes();
+        Map<Class<? extends Node>, Long> declared = new HashMap<Class<? extends Node>, Long>();
+        for (Class<? extends Node> nodeType : nodeTypes) {
+            long count = Modifier.isFinal(nodeType.getModifiers()) ? countNodes(nodeType) : -1;
+            if (count < 0) {
+                declared = null;
+                break;
+            }
+            declared.put(nodeType, count);
+        }
+        if (declared != null) {
+            for (Map.Entry<Class<? extends Node>, Long> entry : declared.entrySet()) {
+                if (entry.getValue() > 0) {
+                    add(counts, entry.getKey(), entry.getValue());
+                }
+            }
+            return;
+        }
+        for (Iterator<? extends Node> i = open(); i.hasNext(); ) {
+            add(counts, i.next().getClass(), 1);
+        }
+    }
+
+    /**
+     * Adds to the count of a type of {@link Node}.
+     *
+     * @param counts   the counts.
+     * @param nodeType the type of {@link Node}.
+     * @param count    the number to add.
+     */
+    private static void add(@NonNull Map<Class<? extends Node>, Long> counts, @NonNull Class<? extends Node> nodeType,
+                            long count) {
+        Long current = counts.get(nodeType);
+        counts.put(nodeType, current == null ? count : current + count);
+    }
+
+    /**
+     * Returns {@code true} if every {@link Node} instance this {@link NodeIterator} returns is of the specified type.
+     *
+     * @param nodeClass the type of {@link Node}.
+     * @return {@code true} if all of the {@link #getNodeTypes()} are sub-types of the specified type.
+     */
+    private boolean returnsOnly(@NonNull Class<? extends Node> nodeClass) {
+        for (Class<? extends Node> nodeType : getNodeTypes()) {
+            if (!nodeClass.isAssignableFrom(nodeType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if this {@link NodeIterator} could return {@link Node} instances of the specified type.
+     *
+     * @param nodeClass the type of {@link Node}.
+     * @return {@code false} if and only if none of the {@link #getNodeTypes()} can have instances of the specified
+     *         type.
      */
-    private static class MetaNodeIterator<N extends Node> extends NodeIterator<N> {
+    final boolean canReturn(@NonNull Class<? extends Node> nodeClass) {
+        ClassValue<Boolean> compatibility = this.compatibility;
+        if (compatibility == null) {
+            final Set<Class<? extends Node>> nodeTypes = getNodeTypes();
+            this.compatibility = compatibility = new ClassValue<Boolean>() {
+                @Override
+                protected Boolean computeValue(Class<?> type) {
+                    for (Class<? extends Node> nodeType : nodeTypes) {
+                        // Node types are classes, so unless one is assignable from the other they are disjoint
+                        if (type.isAssignableFrom(nodeType) || nodeType.isAssignableFrom(type)) {
+                            return Boolean.TRUE;
+                        }
+                    }
+                    return Boolean.FALSE;
+                }
+            };
+        }
+        return compatibility.get(nodeClass);
+    }
+
+    /**
+     * Returns a {@link Spliterator} over the {@link Node} instances of this {@link NodeIterator}. Implementers that
+     * know how many {@link Node} instances they hold, or that can split their {@link Node} instances cheaply, should
+     * override this method so that {@link #stream(Class)} can report a {@link Spliterator#SIZED} stream and balance
+     * a parallel traversal. Implementers that override this method must return a new {@link Spliterator} on every
+     * call, it is then used in place of this {@link NodeIterator} by every walk of the {@link NodeIterator} API.
+     *
+     * @return a {@link Spliterator} over the {@link Node} instances of this {@link NodeIterator}.
+     * @since TODO
+     */
+    @NonNull
+    protected Spliterator<? extends Node> spliterator() {
+        return Spliterators.spliteratorUnknownSize(this, Spliterator.NONNULL);
+    }
+
+    /**
+     * Opens this {@link NodeIterator} for a single walk of its {@link Node} instances. Unless the implementer has
+     * overridden {@link #spliterator()} this is the {@link NodeIterator} itself.
+     *
+     * @return an iterator of the {@link Node} instances of this {@link NodeIterator}.
+     */
+    @NonNull
+    final Iterator<? extends Node> open() {
+        return OVERRIDES_SPLITERATOR.get(getClass()) ? Spliterators.iterator(spliterator()) : this;
+    }
+
+    /**
+     * Returns a {@link Spliterator} for a single walk of the {@link Node} instances of this {@link NodeIterator} by a
+     * stream. Unless the implementer has overridden {@link #spliterator()} this walks the {@link NodeIterator} itself
+     * to its end on first use, so that a stream that stops early does not leave it part way through.
+     *
+     * @return a {@link Spliterator} over the {@link Node} instances of this {@link NodeIterator}.
+     */
+    @NonNull
+    final Spliterator<? extends Node> streamSpliterator() {
+        return isShared() ? new NodeSpliterator.Walked(this) : spliterator();
+    }
+
+    /**
+     * Returns {@code true} if {@link #open()} returns this {@link NodeIterator} itself. As such an extension only
+     * starts over once it has been exhausted, every walk of it must continue to the end.
+     *
+     * @return {@code true} if {@link #open()} returns this {@link NodeIterator} itself.
+     */
+    final boolean isShared() {
+        return !OVERRIDES_SPLITERATOR.get(getClass());
+    }
+
+    /**
+     * The internal iterator that loops through all the known NodeIterator extensions. Each source is only opened
+     * when the previous one has been exhausted, starting with the nodes attached to {@link Jenkins}, so an iterator
+     * that is abandoned early never touches the remaining extensions.
+     */
+    static class MetaNodeIterator<N extends Node> extends NodeIterator<N> {
 
         /**
          * The type of {@link Node} that we are iterating.
@@ -176,15 +1110,51 @@ public abstract class NodeIterator<N extends Node> implements Iterator<N>, Exten
         @NonNull
         private final Class<N> nodeClass;
         /**
-         * The next delegate.
+         * The filter or {@code null} to return all nodes of {@link #nodeClass}.
          */
-        @NonNull
-        private final Iterator<NodeIterator<? extends Node>> metaIterator;
+        @CheckForNull
+        private final NodeFilter filter;
+        /**
+         * {@code true} if the current delegate needs {@link #filter} to be applied locally.
+         */
+        private boolean filtering;
+        /**
+         * The next delegate, {@code null} until the nodes attached to {@link Jenkins} have been exhausted.
+         */
+        @CheckForNull
+        private Iterator<NodeIterator<? extends Node>> metaIterator;
+        /**
+         * {@code true} once the nodes attached to {@link Jenkins} have been opened.
+         */
+        private boolean started;
         /**
          * The current delegate.
          */
         @CheckForNull
         private Iterator<? extends Node> delegate;
+        /**
+         * The extension that the current delegate belongs to or {@code null} for the nodes attached to
+         * {@link Jenkins}.
+         */
+        @CheckForNull
+        private NodeIterator<? extends Node> owner;
+        /**
+         * {@code true} while the current delegate is a legacy extension iterating itself.
+         */
+        private volatile boolean shared;
+        /**
+         * The {@link System#nanoTime()} when we opened the current delegate.
+         */
+        private long opened;
+        /**
+         * The class of the nodes the current delegate has returned since the last call to {@link #tally(Class)}.
+         */
+        @CheckForNull
+        private Class<?> countedClass;
+        /**
+         * The number of nodes of {@link #countedClass}.
+         */
+        private long counted;
         /**
          * The next node.
          */
@@ -194,22 +1164,22 @@ public abstract class NodeIterator<N extends Node> implements Iterator<N>, Exten
         /**
          * Constructs the iterator.
          *
-         * @param metaIterator the iterator of iterators.
          * @param nodeClass    the type of {@link Node} that we are iterating.
          */
-        MetaNodeIterator(@NonNull Iterator<NodeIterator<? extends Node>> metaIterator,
-                         @NonNull Class<N> nodeClass) {
-            metaIterator.getClass(); // throw NPE if null
+        MetaNodeIterator(@NonNull Class<N> nodeClass) {
+            this(nodeClass, null);
+        }
+
+        /**
+         * Constructs the iterator.
+         *
+         * @param nodeClass    the type of {@link Node} that we are iterating.
+         * @param filter       the filter or {@code null} to return all nodes of the type.
+         */
+        MetaNodeIterator(@NonNull Class<N> nodeClass, @CheckForNull NodeFilter filter) {
             nodeClass.getClass(); // throw NPE if null
-            final Jenkins instance = Jenkins.getInstanceOrNull();
-            if (instance == null) { // during startup
-                delegate = Collections.emptyIterator();
-            } else {
-                List<Node> nodes = instance.getNodes();
-                delegate = nodes.iterator();
-            }
-            this.metaIterator = metaIterator;
             this.nodeClass = nodeClass;
+            this.filter = filter;
         }
 
         /**
@@ -219,19 +1189,97 @@ public abstract class NodeIterator<N extends Node> implements Iterator<N>, Exten
             if (next != null) {
                 return true;
             }
-            while ((delegate != null && delegate.hasNext()) || metaIterator.hasNext()) {
-                while (delegate != null && delegate.hasNext()) {
-                    Node _next = delegate.next();
-                    if (nodeClass.isInstance(_next)) {
-                        this.next = nodeClass.cast(_next);
-                        return true;
+            if (!started) {
+                started = true;
+                delegate = NodeSources.jenkinsNodes().iterator(); // empty during startup
+                filtering = filter != null;
+            }
+            while (true) {
+                if (delegate != null) {
+                    try {
+                        while (delegate.hasNext()) {
+                            Node _next = delegate.next();
+                            if (owner != null) {
+                                tally(_next.getClass());
+                            }
+                            if (nodeClass.isInstance(_next) && (!filtering || filter.test(_next))) {
+                                this.next = nodeClass.cast(_next);
+                                return true;
+                            }
+                        }
+                    } catch (RuntimeException e) {
+                        if (owner != null) {
+                            NodeIteratorMetrics.get().failed(owner);
+                        }
+                        throw e;
+                    }
+                    if (owner != null) {
+                        tally(null);
+                        NodeIteratorMetrics.get().iterated(owner, System.nanoTime() - opened);
                     }
+                    delegate = null;
+                    shared = false;
                 }
-                while (metaIterator.hasNext() && (delegate == null || !delegate.hasNext())) {
-                    delegate = metaIterator.next();
+                if (metaIterator == null) {
+                    metaIterator = NodeSources.extensions(nodeClass).iterator();
                 }
+                if (!metaIterator.hasNext()) {
+                    return false;
+                }
+                owner = metaIterator.next();
+                opened = System.nanoTime();
+                delegate = filter == null ? null : owner.filtered(filter);
+                filtering = delegate == null && filter != null;
+                if (delegate == null) {
+                    delegate = owner.open();
+                }
+                shared = delegate == owner;
             }
-            return false;
+        }
+
+        /**
+         * Returns {@code true} if the walk is part way through a legacy extension iterating itself, which must not be
+         * interrupted as it only starts over once it has been exhausted. Safe to call from any thread.
+         *
+         * @return {@code true} if the walk is part way through a legacy extension iterating itself.
+         */
+        boolean isWalkingShared() {
+            return shared;
+        }
+
+        /**
+         * Stops the walk. If the current delegate is a legacy extension iterating itself it is walked to the end, as
+         * such an extension only starts over once it has been exhausted.
+         */
+        void abandon() {
+            if (delegate != null && delegate == owner) {
+                while (delegate.hasNext()) {
+                    delegate.next();
+                }
+            }
+            next = null;
+            started = true;
+            delegate = null;
+            shared = false;
+            metaIterator = Collections.<NodeIterator<? extends Node>>emptyIterator();
+        }
+
+        /**
+         * Counts the nodes returned by the current delegate, batching the updates to {@link NodeIteratorMetrics}
+         * as most delegates only return one class of node.
+         *
+         * @param nodeClass the class of the node returned or {@code null} to flush the count.
+         */
+        private void tally(@CheckForNull Class<?> nodeClass) {
+            if (nodeClass == countedClass) {
+                counted++;
+                return;
+            }
+            if (countedClass != null && owner != null) {
+                NodeIteratorMetrics.get().returned(owner, countedClass, counted);
+            }
+            countedClass = nodeClass;
+            counted = 1;
         }
 
         /**
@@ -0,0 +1,139 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.ExtensionList;
+import hudson.ExtensionPoint;
+import hudson.model.Node;
+import jenkins.model.Jenkins;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Receives notification when a {@link NodeIterator} extension starts or stops being able to return its complete live
+ * set of a type of {@link Node}, so that clean up of unused resources can be triggered as soon as
+ * {@link NodeIterator#isComplete(Class)} may have become {@code true} rather than by polling it. Changes are observed
+ * whenever an extension is asked through {@link NodeIterator#hasCompleteLiveSet(Class)}, whenever it publishes its
+ * state through {@link NodeIterator#fireCompletenessChanged(Class, boolean)}, and shortly after it calls
+ * {@link NodeIterator#fireCompletenessChanged()}. Notifications are delivered in order, one at a time, on a pool thread.
+ *
+ * @since TODO
+ */
+public abstract class NodeIteratorCompletenessListener implements ExtensionPoint {
+
+    /**
+     * Our logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(NodeIteratorCompletenessListener.class.getName());
+
+    /**
+     * The notifications waiting to be delivered.
+     */
+    private static final Queue<CompletenessTransition> PENDING = new ConcurrentLinkedQueue<CompletenessTransition>();
+
+    /**
+     * {@code true} while a task is delivering the {@link #PENDING} notifications.
+     */
+    private static final AtomicBoolean DELIVERING = new AtomicBoolean();
+
+    /**
+     * Called when a {@link NodeIterator} extension starts or stops being able to return its complete live set of a
+     * type of {@link Node}. When an extension becomes complete, call {@link NodeIterator#isComplete(Class)} to find
+     * out whether every extension is now complete.
+     *
+     * @param transition the change.
+     */
+    public abstract void onCompletenessChanged(@NonNull CompletenessTransition transition);
+
+    /**
+     * Returns all the registered listeners.
+     *
+     * @return all the registered listeners.
+     */
+    @NonNull
+    public static List<NodeIteratorCompletenessListener> all() {
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        if (jenkins == null) {
+            return Collections.emptyList();
+        }
+        return jenkins.getExtensionList(NodeIteratorCompletenessListener.class);
+    }
+
+    /**
+     * Notifies all the listeners of a change, asynchronously.
+     *
+     * @param transition the change.
+     */
+    static void fire(@NonNull CompletenessTransition transition) {
+        if (all().isEmpty()) {
+            return;
+        }
+        PENDING.add(transition);
+        if (DELIVERING.compareAndSet(false, true)) {
+            try {
+                NodeIteratorExecutor.get().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        deliver();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // leave the notification pending for the next change rather than blocking every later one
+                DELIVERING.set(false);
+                LOGGER.log(Level.WARNING, "Could not schedule the delivery of " + transition, e);
+            }
+        }
+    }
+
+    /**
+     * Delivers the {@link #PENDING} notifications.
+     */
+    private static void deliver() {
+        do {
+            try {
+                for (CompletenessTransition transition; (transition = PENDING.poll()) != null; ) {
+                    for (NodeIteratorCompletenessListener listener : all()) {
+                        try {
+                            listener.onCompletenessChanged(transition);
+                        } catch (RuntimeException e) {
+                            // one failing listener must not keep the others from being notified
+                            LOGGER.log(Level.WARNING, "Could not notify " + listener + " of " + transition, e);
+                        }
+                    }
+                }
+            } finally {
+                DELIVERING.set(false);
+            }
+            // a notification may have been added after the queue was drained but before the flag was cleared
+        } while (!PENDING.isEmpty() && DELIVERING.compareAndSet(false, true));
+    }
+}
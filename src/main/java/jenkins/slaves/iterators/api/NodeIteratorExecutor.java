@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.util.SystemProperties;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The executor used to call {@link NodeIterator} extensions concurrently. By default this is a bounded pool of daemon
+ * threads sized by the {@code jenkins.slaves.iterators.api.NodeIteratorExecutor.poolSize} system property. On a
+ * Java runtime with virtual threads, setting the {@code jenkins.slaves.iterators.api.NodeIteratorExecutor.virtualThreads}
+ * system property uses a virtual thread per task instead.
+ */
+final class NodeIteratorExecutor {
+
+    /**
+     * Our logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(NodeIteratorExecutor.class.getName());
+
+    /**
+     * Utility class.
+     */
+    private NodeIteratorExecutor() {
+    }
+
+    /**
+     * Returns the executor.
+     *
+     * @return the executor.
+     */
+    @NonNull
+    static ExecutorService get() {
+        return ResourceHolder.INSTANCE;
+    }
+
+    /**
+     * Creates the executor.
+     *
+     * @return the executor.
+     */
+    @NonNull
+    private static ExecutorService create() {
+        String prefix = NodeIteratorExecutor.class.getName();
+        if (SystemProperties.getBoolean(prefix + ".virtualThreads")) {
+            try {
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                LOGGER.log(Level.WARNING, "Virtual threads are not available, falling back to a thread pool", e);
+            }
+        }
+        int size = Math.max(1, SystemProperties.getInteger(prefix + ".poolSize",
+                Math.max(4, Runtime.getRuntime().availableProcessors())));
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(size, size, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new NamingThreadFactory(new DaemonThreadFactory(), "NodeIterator"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Lazy singleton pattern.
+     */
+    private static final class ResourceHolder {
+        /**
+         * The executor.
+         */
+        private static final ExecutorService INSTANCE = create();
+
+        private ResourceHolder() {
+        }
+    }
+}
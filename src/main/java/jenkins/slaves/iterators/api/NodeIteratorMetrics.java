@@ -0,0 +1,257 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.Node;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Records how each {@link NodeIterator} extension behaves so that a slow, failing or incomplete extension can be
+ * identified. The metrics are available in process through {@link #get()} and over JMX as
+ * {@value #OBJECT_NAME}.
+ *
+ * @since TODO
+ */
+public final class NodeIteratorMetrics implements NodeIteratorMetricsMXBean {
+
+    /**
+     * The JMX object name.
+     */
+    public static final String OBJECT_NAME = "jenkins.slaves.iterators.api:type=NodeIteratorMetrics";
+
+    /**
+     * Our logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(NodeIteratorMetrics.class.getName());
+
+    /**
+     * The singleton.
+     */
+    private static final NodeIteratorMetrics INSTANCE = new NodeIteratorMetrics();
+
+    /**
+     * The metrics of each extension.
+     */
+    private final ConcurrentMap<NodeIterator<?>, Recorder> recorders =
+            new ConcurrentHashMap<NodeIterator<?>, Recorder>();
+
+    /**
+     * Singleton.
+     */
+    private NodeIteratorMetrics() {
+    }
+
+    /**
+     * Returns the metrics.
+     *
+     * @return the metrics.
+     */
+    @NonNull
+    public static NodeIteratorMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server.
+     */
+    @Initializer(after = InitMilestone.PLUGINS_STARTED)
+    @Restricted(NoExternalUse.class)
+    public static void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Could not register " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public List<ExtensionMetrics> getExtensions() {
+        List<ExtensionMetrics> result = new ArrayList<ExtensionMetrics>(recorders.size());
+        for (Map.Entry<NodeIterator<?>, Recorder> entry : recorders.entrySet()) {
+            result.add(entry.getValue().snapshot(entry.getKey()));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        recorders.clear();
+    }
+
+    /**
+     * Discards the metrics of the extensions that are no longer registered.
+     *
+     * @param extensions the registered extensions.
+     */
+    void retain(@NonNull Set<?> extensions) {
+        recorders.keySet().retainAll(extensions);
+    }
+
+    /**
+     * Records that an extension has been iterated until exhausted.
+     *
+     * @param extension the extension.
+     * @param nanos     the time taken.
+     */
+    void iterated(@NonNull NodeIterator<?> extension, long nanos) {
+        recorder(extension).iterationLatency.record(nanos);
+    }
+
+    /**
+     * Records that an extension returned {@link Node}s.
+     *
+     * @param extension the extension.
+     * @param nodeClass the class of the {@link Node}s.
+     * @param count     the number of {@link Node}s.
+     */
+    void returned(@NonNull NodeIterator<?> extension, @NonNull Class<?> nodeClass, long count) {
+        ConcurrentMap<Class<?>, LongAdder> nodeCounts = recorder(extension).nodeCounts;
+        LongAdder adder = nodeCounts.get(nodeClass);
+        if (adder == null) {
+            LongAdder created = new LongAdder();
+            adder = nodeCounts.putIfAbsent(nodeClass, created);
+            if (adder == null) {
+                adder = created;
+            }
+        }
+        adder.add(count);
+    }
+
+    /**
+     * Records a call to {@link NodeIterator#hasCompleteLiveSet(Class)}.
+     *
+     * @param extension the extension.
+     * @param nanos     the time taken.
+     * @param complete  the result.
+     */
+    void probed(@NonNull NodeIterator<?> extension, long nanos, boolean complete) {
+        Recorder recorder = recorder(extension);
+        recorder.completenessLatency.record(nanos);
+        if (!complete) {
+            recorder.incomplete.increment();
+        }
+    }
+
+    /**
+     * Records an exception thrown by an extension.
+     *
+     * @param extension the extension.
+     */
+    void failed(@NonNull NodeIterator<?> extension) {
+        recorder(extension).failures.increment();
+    }
+
+    /**
+     * Returns the recorder of an extension.
+     *
+     * @param extension the extension.
+     * @return the recorder of the extension.
+     */
+    @NonNull
+    private Recorder recorder(@NonNull NodeIterator<?> extension) {
+        Recorder recorder = recorders.get(extension);
+        if (recorder == null) {
+            Recorder created = new Recorder();
+            recorder = recorders.putIfAbsent(extension, created);
+            if (recorder == null) {
+                recorder = created;
+            }
+        }
+        return recorder;
+    }
+
+    /**
+     * The live metrics of an extension.
+     */
+    private static final class Recorder {
+        /**
+         * The time taken to exhaust the extension.
+         */
+        private final LatencyHistogram iterationLatency = new LatencyHistogram();
+        /**
+         * The number of {@link Node}s returned by class.
+         */
+        private final ConcurrentMap<Class<?>, LongAdder> nodeCounts = new ConcurrentHashMap<Class<?>, LongAdder>();
+        /**
+         * The time taken by {@link NodeIterator#hasCompleteLiveSet(Class)}.
+         */
+        private final LatencyHistogram completenessLatency = new LatencyHistogram();
+        /**
+         * The number of times {@link NodeIterator#hasCompleteLiveSet(Class)} returned {@code false}.
+         */
+        private final LongAdder incomplete = new LongAdder();
+        /**
+         * The number of exceptions.
+         */
+        private final LongAdder failures = new LongAdder();
+
+        /**
+         * Returns a point in time view of the metrics.
+         *
+         * @param extension the extension.
+         * @return a point in time view of the metrics.
+         */
+        @NonNull
+        ExtensionMetrics snapshot(@NonNull NodeIterator<?> extension) {
+            Map<String, Long> counts = new TreeMap<String, Long>();
+            for (Map.Entry<Class<?>, LongAdder> entry : nodeCounts.entrySet()) {
+                counts.put(entry.getKey().getName(), entry.getValue().sum());
+            }
+            return new ExtensionMetrics(extension.getClass().getName(), iterationLatency.snapshot(),
+                    Collections.unmodifiableMap(counts), completenessLatency.snapshot(), incomplete.sum(),
+                    failures.sum());
+        }
+    }
+}
@@ -0,0 +1,624 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Label;
+import hudson.model.Node;
+import hudson.model.labels.LabelAtom;
+import hudson.model.labels.LabelExpression;
+import hudson.model.labels.LabelVisitor;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An index from each {@link LabelAtom} to a bitmap of the ordinals of the {@link Node}s that carry it, so that a
+ * label expression can be evaluated with bitmap {@code AND}/{@code OR}/{@code NOT} rather than by calling
+ * {@link Label#matches(Node)} on every {@link Node}. The index covers the {@link Node}s attached to
+ * {@link jenkins.model.Jenkins} and the {@link Node}s of the {@link NodeIterator} extensions that
+ * {@linkplain NodeIterator#reportsChanges() report their changes}, and is maintained incrementally from those changes.
+ * When it has to be rebuilt, the new index is built without holding the lock, the changes reported meanwhile are
+ * replayed onto it and it is then swapped in. The {@link Node}s of any other extension are matched individually on
+ * every query. Labels contributed dynamically by a {@link hudson.model.LabelFinder} are re-read when a computer goes
+ * on-line or off-line, the {@link Node}s attached to {@link jenkins.model.Jenkins} whose label string has changed are
+ * re-read when the configuration of {@link jenkins.model.Jenkins} changes, and every candidate from the index is
+ * confirmed with {@link Label#matches(Node)} so a {@link Node} is never reported for a label it no longer carries.
+ */
+final class NodeLabelIndex {
+
+    /**
+     * The singleton, whose lock guards the current {@link Table}.
+     */
+    private static final NodeLabelIndex INSTANCE = new NodeLabelIndex();
+
+    /**
+     * Serializes the rebuilds of the index, which walk the sources without holding the lock of {@link #INSTANCE}.
+     */
+    private static final Object REBUILD = new Object();
+
+    /**
+     * The current index, or {@code null} if the index must be rebuilt.
+     */
+    @CheckForNull
+    private Table table;
+    /**
+     * The changes reported while a rebuild is walking the sources, or {@code null} if no rebuild is in progress.
+     */
+    @CheckForNull
+    private List<Change> pending;
+    /**
+     * {@code true} if the rebuild in progress must be discarded as a source has changed in some unspecified way.
+     */
+    private boolean discarded;
+    /**
+     * The number of times the {@link Node}s attached to {@link jenkins.model.Jenkins} may have changed without
+     * notification.
+     */
+    private long suspicions;
+    /**
+     * The {@link #suspicions} that the current index has been checked against.
+     */
+    private long checked;
+
+    /**
+     * Singleton.
+     */
+    private NodeLabelIndex() {
+    }
+
+    /**
+     * Returns the {@link Node}s matching a {@link Label}.
+     *
+     * @param label the {@link Label}.
+     * @return the {@link Node}s matching the {@link Label}.
+     */
+    @NonNull
+    static List<Node> nodes(@NonNull Label label) {
+        List<Node> result = new ArrayList<Node>();
+        match(label, result);
+        return result;
+    }
+
+    /**
+     * Counts the {@link Node}s matching a {@link Label}.
+     *
+     * @param label the {@link Label}.
+     * @return the number of {@link Node}s matching the {@link Label}.
+     */
+    static int count(@NonNull Label label) {
+        return match(label, null);
+    }
+
+    /**
+     * Finds the {@link Node}s matching a {@link Label}. The candidates from the index are confirmed with
+     * {@link Label#matches(Node)}, so a {@link Node} that has lost a label since it was indexed is not returned.
+     *
+     * @param label  the {@link Label}.
+     * @param result where to add the matching {@link Node}s, or {@code null} to only count them.
+     * @return the number of matching {@link Node}s.
+     */
+    private static int match(@NonNull Label label, @CheckForNull List<Node> result) {
+        int count = 0;
+        if (!isIndexable(label)) {
+            for (Iterator<Node> i = NodeIterator.iterator(); i.hasNext(); ) {
+                Node node = i.next();
+                if (label.matches(node)) {
+                    count++;
+                    if (result != null) {
+                        result.add(node);
+                    }
+                }
+            }
+            return count;
+        }
+        List<Node> candidates = new ArrayList<Node>();
+        boolean evaluated = false;
+        while (!evaluated) {
+            Table table = INSTANCE.current();
+            synchronized (INSTANCE) {
+                // retry if the index was discarded since it was brought up to date
+                if (INSTANCE.table == table) {
+                    BitSet matches = label.accept(table.evaluator, null);
+                    for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                        candidates.add(table.nodes[i]);
+                    }
+                    evaluated = true;
+                }
+            }
+        }
+        for (Node node : candidates) {
+            if (label.matches(node)) {
+                count++;
+                if (result != null) {
+                    result.add(node);
+                }
+            }
+        }
+        for (NodeIterator<? extends Node> extension : NodeSources.extensions()) {
+            if (!extension.reportsChanges()) {
+                for (Iterator<? extends Node> i = extension.open(); i.hasNext(); ) {
+                    Node node = i.next();
+                    if (label.matches(node)) {
+                        count++;
+                        if (result != null) {
+                            result.add(node);
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * A {@link Node} has been added to a source.
+     *
+     * @param source the {@link NodeIterator} extension or {@code null} for {@link jenkins.model.Jenkins}.
+     * @param node   the {@link Node}.
+     */
+    static void added(@CheckForNull NodeIterator<?> source, @NonNull Node node) {
+        if (source == null || source.reportsChanges()) {
+            INSTANCE.apply(new Change(Change.Kind.ADDED, node, source == null));
+        }
+    }
+
+    /**
+     * A {@link Node} has been removed from a source.
+     *
+     * @param source the {@link NodeIterator} extension or {@code null} for {@link jenkins.model.Jenkins}.
+     * @param node   the {@link Node}.
+     */
+    static void removed(@CheckForNull NodeIterator<?> source, @NonNull Node node) {
+        if (source == null || source.reportsChanges()) {
+            INSTANCE.apply(new Change(Change.Kind.REMOVED, node, source == null));
+        }
+    }
+
+    /**
+     * The {@link Node}s of a source have changed in some unspecified way.
+     */
+    static void changed() {
+        synchronized (INSTANCE) {
+            INSTANCE.table = null;
+            INSTANCE.discarded = INSTANCE.pending != null;
+        }
+    }
+
+    /**
+     * The {@link Node}s attached to {@link jenkins.model.Jenkins}, or their label strings, may have changed without
+     * notification.
+     */
+    static void jenkinsChanged() {
+        synchronized (INSTANCE) {
+            INSTANCE.suspicions++;
+        }
+    }
+
+    /**
+     * The labels of a {@link Node} may have changed without the {@link Node} being replaced, for example because a
+     * {@link hudson.model.LabelFinder} contributes different labels now that its computer is on-line.
+     *
+     * @param node the {@link Node}.
+     */
+    static void relabel(@NonNull Node node) {
+        INSTANCE.apply(new Change(Change.Kind.RELABELLED, node, false));
+    }
+
+    /**
+     * Returns {@code true} if the {@link Label} can be evaluated against the index.
+     *
+     * @param label the {@link Label}.
+     * @return {@code true} if the {@link Label} can be evaluated against the index.
+     */
+    private static boolean isIndexable(@NonNull Label label) {
+        return label instanceof LabelAtom || label instanceof LabelExpression;
+    }
+
+    /**
+     * Applies a change to the current index, and records it for the rebuild in progress if any.
+     *
+     * @param change the change.
+     */
+    private synchronized void apply(@NonNull Change change) {
+        if (table != null) {
+            change.applyTo(table);
+        }
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+
+    /**
+     * Returns the current index, rebuilding it if it is out of date.
+     *
+     * @return the current index.
+     */
+    @NonNull
+    private Table current() {
+        List<NodeIterator<? extends Node>> extensions = NodeSources.extensions();
+        synchronized (this) {
+            if (table != null && table.extensions == extensions && checked == suspicions) {
+                return table;
+            }
+        }
+        synchronized (REBUILD) {
+            while (true) {
+                extensions = NodeSources.extensions();
+                Table table;
+                long suspected;
+                synchronized (this) {
+                    table = this.table;
+                    suspected = suspicions;
+                    if (table != null && table.extensions == extensions && checked == suspected) {
+                        return table;
+                    }
+                }
+                if (table != null && table.extensions == extensions) {
+                    // only the nodes attached to Jenkins are suspect
+                    long fingerprint = 0;
+                    for (Node node : NodeSources.jenkinsNodes()) {
+                        fingerprint += System.identityHashCode(node);
+                    }
+                    synchronized (this) {
+                        if (this.table == table && table.jenkinsFingerprint == fingerprint) {
+                            table.relabelChangedLabelStrings();
+                            checked = suspected;
+                            return table;
+                        }
+                    }
+                }
+                synchronized (this) {
+                    pending = new ArrayList<Change>();
+                    discarded = false;
+                }
+                Table built = new Table(extensions, NodeSources.jenkinsNodes());
+                synchronized (this) {
+                    List<Change> changes = pending;
+                    pending = null;
+                    if (!discarded) {
+                        for (Change change : changes) {
+                            change.applyTo(built);
+                        }
+                        this.table = built;
+                        checked = suspected;
+                        return built;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A reported change to the indexed {@link Node}s.
+     */
+    private static final class Change {
+        /**
+         * The kinds of change.
+         */
+        private enum Kind {
+            /**
+             * The {@link Node} was added.
+             */
+            ADDED,
+            /**
+             * The {@link Node} was removed.
+             */
+            REMOVED,
+            /**
+             * The labels of the {@link Node} may have changed.
+             */
+            RELABELLED
+        }
+
+        /**
+         * The kind of change.
+         */
+        @NonNull
+        private final Kind kind;
+        /**
+         * The {@link Node}.
+         */
+        @NonNull
+        private final Node node;
+        /**
+         * {@code true} if the {@link Node} is attached to {@link jenkins.model.Jenkins}.
+         */
+        private final boolean jenkins;
+
+        /**
+         * Constructor.
+         *
+         * @param kind    the kind of change.
+         * @param node    the {@link Node}.
+         * @param jenkins {@code true} if the {@link Node} is attached to {@link jenkins.model.Jenkins}.
+         */
+        Change(@NonNull Kind kind, @NonNull Node node, boolean jenkins) {
+            this.kind = kind;
+            this.node = node;
+            this.jenkins = jenkins;
+        }
+
+        /**
+         * Applies this change to an index.
+         *
+         * @param table the index.
+         */
+        void applyTo(@NonNull Table table) {
+            switch (kind) {
+                case ADDED:
+                    table.add(node, jenkins);
+                    break;
+                case REMOVED:
+                    table.remove(node, jenkins);
+                    break;
+                default:
+                    table.relabel(node);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * The index itself. Once it has been swapped in it is only accessed while holding the lock of {@link #INSTANCE}.
+     */
+    private static final class Table {
+        /**
+         * The extensions the index was built from.
+         */
+        @NonNull
+        private final List<NodeIterator<? extends Node>> extensions;
+        /**
+         * The indexed {@link Node}s by ordinal, with {@code null} in free slots.
+         */
+        @NonNull
+        private Node[] nodes;
+        /**
+         * The label strings of the indexed {@link Node}s attached to {@link jenkins.model.Jenkins} by ordinal, when
+         * they were last labelled.
+         */
+        @NonNull
+        private String[] labelStrings;
+        /**
+         * The ordinal of each indexed {@link Node}.
+         */
+        @NonNull
+        private final Map<Node, Integer> ordinals = new IdentityHashMap<Node, Integer>();
+        /**
+         * The ordinals in use.
+         */
+        @NonNull
+        private final BitSet live = new BitSet();
+        /**
+         * The ordinals of the {@link Node}s attached to {@link jenkins.model.Jenkins}.
+         */
+        @NonNull
+        private final BitSet jenkins = new BitSet();
+        /**
+         * The ordinals of the {@link Node}s carrying each {@link LabelAtom}.
+         */
+        @NonNull
+        private final Map<LabelAtom, BitSet> atoms = new HashMap<LabelAtom, BitSet>();
+        /**
+         * The sum of {@link System#identityHashCode(Object)} of the indexed {@link Node}s attached to
+         * {@link jenkins.model.Jenkins}.
+         */
+        private long jenkinsFingerprint;
+
+        /**
+         * Builds the index.
+         *
+         * @param extensions   the extensions to index the {@link Node}s of.
+         * @param jenkinsNodes the {@link Node}s attached to {@link jenkins.model.Jenkins}.
+         */
+        Table(@NonNull List<NodeIterator<? extends Node>> extensions, @NonNull List<Node> jenkinsNodes) {
+            this.extensions = extensions;
+            int capacity = Math.max(64, Integer.highestOneBit(Math.max(1, jenkinsNodes.size())) << 1);
+            this.nodes = new Node[capacity];
+            this.labelStrings = new String[capacity];
+            for (Node node : jenkinsNodes) {
+                add(node, true);
+            }
+            for (NodeIterator<? extends Node> extension : extensions) {
+                if (extension.reportsChanges()) {
+                    for (Iterator<? extends Node> i = extension.open(); i.hasNext(); ) {
+                        add(i.next(), false);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Indexes a {@link Node}.
+         *
+         * @param node    the {@link Node}.
+         * @param jenkins {@code true} if the {@link Node} is attached to {@link jenkins.model.Jenkins}.
+         */
+        void add(@NonNull Node node, boolean jenkins) {
+            if (ordinals.containsKey(node)) {
+                return;
+            }
+            int ordinal = live.nextClearBit(0);
+            if (ordinal >= nodes.length) {
+                Node[] grown = new Node[nodes.length << 1];
+                System.arraycopy(nodes, 0, grown, 0, nodes.length);
+                nodes = grown;
+                String[] grownLabelStrings = new String[grown.length];
+                System.arraycopy(labelStrings, 0, grownLabelStrings, 0, labelStrings.length);
+                labelStrings = grownLabelStrings;
+            }
+            nodes[ordinal] = node;
+            ordinals.put(node, ordinal);
+            live.set(ordinal);
+            label(node, ordinal);
+            if (jenkins) {
+                this.jenkins.set(ordinal);
+                jenkinsFingerprint += System.identityHashCode(node);
+            }
+        }
+
+        /**
+         * Removes a {@link Node} from the index.
+         *
+         * @param node    the {@link Node}.
+         * @param jenkins {@code true} if the {@link Node} was attached to {@link jenkins.model.Jenkins}.
+         */
+        void remove(@NonNull Node node, boolean jenkins) {
+            Integer ordinal = ordinals.remove(node);
+            if (ordinal == null) {
+                return;
+            }
+            nodes[ordinal] = null;
+            labelStrings[ordinal] = null;
+            live.clear(ordinal);
+            this.jenkins.clear(ordinal);
+            unlabel(ordinal);
+            if (jenkins) {
+                jenkinsFingerprint -= System.identityHashCode(node);
+            }
+        }
+
+        /**
+         * Re-reads the labels of an indexed {@link Node}.
+         *
+         * @param node the {@link Node}.
+         */
+        void relabel(@NonNull Node node) {
+            Integer ordinal = ordinals.get(node);
+            if (ordinal != null) {
+                unlabel(ordinal);
+                label(node, ordinal);
+            }
+        }
+
+        /**
+         * Re-reads the labels of the indexed {@link Node}s attached to {@link jenkins.model.Jenkins} whose label
+         * string has changed since they were last labelled.
+         */
+        void relabelChangedLabelStrings() {
+            for (int i = jenkins.nextSetBit(0); i >= 0; i = jenkins.nextSetBit(i + 1)) {
+                if (!Objects.equals(labelStrings[i], nodes[i].getLabelString())) {
+                    unlabel(i);
+                    label(nodes[i], i);
+                }
+            }
+        }
+
+        /**
+         * Records the current labels of an indexed {@link Node}.
+         *
+         * @param node    the {@link Node}.
+         * @param ordinal the ordinal of the {@link Node}.
+         */
+        private void label(@NonNull Node node, int ordinal) {
+            labelStrings[ordinal] = node.getLabelString();
+            for (LabelAtom atom : node.getAssignedLabels()) {
+                BitSet bits = atoms.get(atom);
+                if (bits == null) {
+                    bits = new BitSet();
+                    atoms.put(atom, bits);
+                }
+                bits.set(ordinal);
+            }
+        }
+
+        /**
+         * Forgets the labels of an indexed {@link Node}.
+         *
+         * @param ordinal the ordinal of the {@link Node}.
+         */
+        private void unlabel(int ordinal) {
+            for (Iterator<BitSet> i = atoms.values().iterator(); i.hasNext(); ) {
+                BitSet bits = i.next();
+                bits.clear(ordinal);
+                if (bits.isEmpty()) {
+                    i.remove();
+                }
+            }
+        }
+
+        /**
+         * Evaluates a label expression against the index, always returning a new {@link BitSet}.
+         */
+        private final LabelVisitor<BitSet, Void> evaluator = new LabelVisitor<BitSet, Void>() {
+            @Override
+            public BitSet onAtom(LabelAtom atom, Void param) {
+                BitSet bits = atoms.get(atom);
+                return bits == null ? new BitSet() : (BitSet) bits.clone();
+            }
+
+            @Override
+            public BitSet onParen(LabelExpression.Paren expression, Void param) {
+                return expression.base.accept(this, param);
+            }
+
+            @Override
+            public BitSet onNot(LabelExpression.Not expression, Void param) {
+                BitSet bits = (BitSet) live.clone();
+                bits.andNot(expression.base.accept(this, param));
+                return bits;
+            }
+
+            @Override
+            public BitSet onAnd(LabelExpression.And expression, Void param) {
+                BitSet bits = expression.lhs.accept(this, param);
+                bits.and(expression.rhs.accept(this, param));
+                return bits;
+            }
+
+            @Override
+            public BitSet onOr(LabelExpression.Or expression, Void param) {
+                BitSet bits = expression.lhs.accept(this, param);
+                bits.or(expression.rhs.accept(this, param));
+                return bits;
+            }
+
+            @Override
+            public BitSet onIff(LabelExpression.Iff expression, Void param) {
+                // a <-> b is the complement of a xor b
+                BitSet bits = expression.lhs.accept(this, param);
+                bits.xor(expression.rhs.accept(this, param));
+                BitSet result = (BitSet) live.clone();
+                result.andNot(bits);
+                return result;
+            }
+
+            @Override
+            public BitSet onImplies(LabelExpression.Implies expression, Void param) {
+                // a -> b is !a | b
+                BitSet bits = (BitSet) live.clone();
+                bits.andNot(expression.lhs.accept(this, param));
+                bits.or(expression.rhs.accept(this, param));
+                return bits;
+            }
+        };
+    }
+}
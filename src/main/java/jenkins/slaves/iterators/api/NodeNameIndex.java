@@ -0,0 +1,175 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Node;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An index of the {@link Node} instances returned by {@link NodeIterator} extensions that
+ * {@linkplain NodeIterator#reportsChanges() report their changes}, keyed by {@link Node#getNodeName()}.
+ * The {@link Node} instances attached to {@link jenkins.model.Jenkins} are not indexed here as
+ * {@link jenkins.model.Jenkins#getNode(String)} is already a constant time lookup. The names of all the extensions
+ * are also kept in a single {@link NameFilter} so that a name which no extension returns can be ruled out without a
+ * lookup per extension.
+ */
+final class NodeNameIndex {
+
+    /**
+     * The index of each {@link NodeIterator} extension, holding every {@link Node} reported with a name in the order
+     * they were added, so that removing one {@link Node} leaves any other with the same name findable. The arrays are
+     * never modified once published and updates are guarded by {@code INDEX}.
+     */
+    private static final ConcurrentMap<NodeIterator<?>, ConcurrentMap<String, Node[]>> INDEX =
+            new ConcurrentHashMap<NodeIterator<?>, ConcurrentMap<String, Node[]>>();
+
+    /**
+     * The names in the index, replaced by a larger filter when it becomes overloaded. Updates are guarded by
+     * {@code INDEX}.
+     */
+    private static volatile NameFilter filter = new NameFilter(0);
+
+    /**
+     * Utility class.
+     */
+    private NodeNameIndex() {
+    }
+
+    /**
+     * Looks up a {@link Node} by name.
+     *
+     * @param source the {@link NodeIterator} extension.
+     * @param name   the name of the {@link Node}.
+     * @return the most recently added {@link Node} or {@code null} if the extension has not reported a {@link Node}
+     *         with that name.
+     */
+    @CheckForNull
+    static Node get(@NonNull NodeIterator<?> source, @NonNull String name) {
+        ConcurrentMap<String, Node[]> index = INDEX.get(source);
+        Node[] nodes = index == null ? null : index.get(name);
+        return nodes == null ? null : nodes[nodes.length - 1];
+    }
+
+    /**
+     * Returns {@code false} if no extension has reported a {@link Node} with the specified name.
+     *
+     * @param name the name of the {@link Node}.
+     * @return {@code false} if no extension has reported a {@link Node} with that name.
+     */
+    static boolean mightContain(@NonNull String name) {
+        return filter.mightContain(name);
+    }
+
+    /**
+     * Indexes a {@link Node}.
+     *
+     * @param source the {@link NodeIterator} extension.
+     * @param node   the {@link Node}.
+     */
+    static void added(@NonNull NodeIterator<?> source, @NonNull Node node) {
+        synchronized (INDEX) {
+            ConcurrentMap<String, Node[]> index = INDEX.get(source);
+            if (index == null) {
+                index = new ConcurrentHashMap<String, Node[]>();
+                INDEX.put(source, index);
+            }
+            String name = node.getNodeName();
+            Node[] nodes = index.get(name);
+            if (nodes != null) {
+                for (Node n : nodes) {
+                    if (n == node) {
+                        return;
+                    }
+                }
+                nodes = Arrays.copyOf(nodes, nodes.length + 1);
+                nodes[nodes.length - 1] = node;
+                index.put(name, nodes);
+            } else {
+                index.put(name, new Node[]{node});
+                NameFilter filter = NodeNameIndex.filter;
+                if (filter.isOverloaded()) {
+                    filter = new NameFilter(filter.size() * 2);
+                    for (ConcurrentMap<String, Node[]> names : INDEX.values()) {
+                        for (String indexed : names.keySet()) {
+                            filter.add(indexed);
+                        }
+                    }
+                    NodeNameIndex.filter = filter;
+                } else {
+                    filter.add(name);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes a {@link Node} from the index.
+     *
+     * @param source the {@link NodeIterator} extension.
+     * @param node   the {@link Node}.
+     */
+    static void removed(@NonNull NodeIterator<?> source, @NonNull Node node) {
+        synchronized (INDEX) {
+            ConcurrentMap<String, Node[]> index = INDEX.get(source);
+            String name = node.getNodeName();
+            Node[] nodes = index == null ? null : index.get(name);
+            if (nodes == null) {
+                return;
+            }
+            for (int i = 0; i < nodes.length; i++) {
+                if (nodes[i] == node) {
+                    if (nodes.length == 1) {
+                        index.remove(name);
+                        filter.remove(name);
+                    } else {
+                        Node[] remaining = new Node[nodes.length - 1];
+                        System.arraycopy(nodes, 0, remaining, 0, i);
+                        System.arraycopy(nodes, i + 1, remaining, i, remaining.length - i);
+                        index.put(name, remaining);
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces a {@link Node} in the index.
+     *
+     * @param source  the {@link NodeIterator} extension.
+     * @param oldNode the {@link Node} being replaced.
+     * @param newNode the replacement {@link Node}.
+     */
+    static void replaced(@NonNull NodeIterator<?> source, @CheckForNull Node oldNode, @NonNull Node newNode) {
+        if (oldNode != null) {
+            removed(source, oldNode);
+        }
+        added(source, newNode);
+    }
+}
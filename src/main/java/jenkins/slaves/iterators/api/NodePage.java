@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A page of {@link Node}s together with the cursor to continue from.
+ *
+ * @param <N> the type of {@link Node}.
+ * @see NodeIterator#page(Class, String, int)
+ * @since TODO
+ */
+public final class NodePage<N extends Node> {
+
+    /**
+     * The {@link Node}s.
+     */
+    @NonNull
+    private final List<N> nodes;
+    /**
+     * The cursor of the next page or {@code null} if this is the last page.
+     */
+    @CheckForNull
+    private final String cursor;
+
+    /**
+     * Constructor.
+     *
+     * @param nodes  the {@link Node}s.
+     * @param cursor the cursor of the next page or {@code null} if this is the last page.
+     */
+    public NodePage(@NonNull List<? extends N> nodes, @CheckForNull String cursor) {
+        this.nodes = Collections.unmodifiableList(new ArrayList<N>(nodes));
+        this.cursor = cursor;
+    }
+
+    /**
+     * Returns the {@link Node}s of this page.
+     *
+     * @return the {@link Node}s of this page.
+     */
+    @NonNull
+    public List<N> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the opaque cursor to pass to get the next page.
+     *
+     * @return the cursor of the next page or {@code null} if this is the last page.
+     */
+    @CheckForNull
+    public String getCursor() {
+        return cursor;
+    }
+}
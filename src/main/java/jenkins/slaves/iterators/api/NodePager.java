@@ -0,0 +1,261 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Node;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Pages through the sources of {@link Node}s. A cursor records the source and the position within it: for the
+ * {@link Node}s attached to {@link jenkins.model.Jenkins}, which are sorted by name, it is the name of the last
+ * {@link Node} returned and the next page starts with a binary search; for a {@link NodeIterator} extension that
+ * implements {@link NodeIterator#getPage(String, int)} it is the position that the extension returned; for any other
+ * extension it is the number of its {@link Node} instances that have been walked, which are skipped again. An
+ * extension that is its own iterator, rather than {@linkplain NodeIterator#spliterator() opening} a new one for each
+ * walk, is always walked to the end so that it starts over for the next page or the next caller.
+ */
+final class NodePager {
+
+    /**
+     * The version of the cursor format.
+     */
+    private static final int VERSION = 1;
+    /**
+     * The position is the name of the last {@link Node} returned from {@link jenkins.model.Jenkins}.
+     */
+    private static final int BY_NAME = 'N';
+    /**
+     * The position is the one returned by {@link NodeIterator#getPage(String, int)}.
+     */
+    private static final int BY_HOOK = 'H';
+    /**
+     * The position is the number of {@link Node}s walked.
+     */
+    private static final int BY_OFFSET = 'O';
+
+    /**
+     * Utility class.
+     */
+    private NodePager() {
+    }
+
+    /**
+     * Returns a page of {@link Node}s.
+     *
+     * @param nodeClass the type of {@link Node}.
+     * @param cursor    the cursor or {@code null} for the first page.
+     * @param limit     the maximum number of {@link Node}s.
+     * @param <N>       the type of {@link Node}.
+     * @return the page.
+     * @throws IllegalArgumentException if the cursor is not valid.
+     */
+    @NonNull
+    static <N extends Node> NodePage<N> page(@NonNull Class<N> nodeClass, @CheckForNull String cursor, int limit) {
+        List<NodeIterator<? extends Node>> extensions = NodeSources.extensions(nodeClass);
+        // source -1 is Jenkins, source i >= 0 is extensions.get(i)
+        int source = -1;
+        int mode = BY_NAME;
+        String position = null;
+        if (cursor != null) {
+            try {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)));
+                if (in.readUnsignedByte() != VERSION) {
+                    throw new IllegalArgumentException("Unsupported cursor: " + cursor);
+                }
+                String name = in.readUTF();
+                mode = in.readUnsignedByte();
+                position = in.readBoolean() ? in.readUTF() : null;
+                if (!name.isEmpty()) {
+                    source = indexOf(extensions, name);
+                    if (source < 0) {
+                        throw new IllegalArgumentException("The source of the cursor has been removed: " + name);
+                    }
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+            }
+        }
+        List<N> nodes = new ArrayList<N>(Math.min(limit, 1024));
+        while (true) {
+            if (source < 0) {
+                List<Node> jenkinsNodes = NodeSources.jenkinsNodes();
+                int i = position == null ? 0 : after(jenkinsNodes, position);
+                for (; i < jenkinsNodes.size() && nodes.size() < limit; i++) {
+                    Node node = jenkinsNodes.get(i);
+                    if (nodeClass.isInstance(node)) {
+                        nodes.add(nodeClass.cast(node));
+                        position = node.getNodeName();
+                    }
+                }
+                if (nodes.size() == limit && i < jenkinsNodes.size()) {
+                    return new NodePage<N>(nodes, encode(null, BY_NAME, position));
+                }
+            } else {
+                NodeIterator<? extends Node> extension = extensions.get(source);
+                if (mode != BY_OFFSET) {
+                    while (nodes.size() < limit) {
+                        NodePage<? extends Node> page = extension.getPage(position, limit - nodes.size());
+                        if (page == null) {
+                            if (position != null) {
+                                throw new IllegalArgumentException(extension + " no longer supports paging");
+                            }
+                            mode = BY_OFFSET;
+                            break;
+                        }
+                        if (page.getNodes().isEmpty() && page.getCursor() != null) {
+                            // the same position would be asked for again and again
+                            throw new IllegalStateException(extension + " returned an empty page that is not the last");
+                        }
+                        for (Node node : page.getNodes()) {
+                            if (nodeClass.isInstance(node)) {
+                                nodes.add(nodeClass.cast(node));
+                            }
+                        }
+                        position = page.getCursor();
+                        if (position == null) {
+                            break;
+                        }
+                    }
+                    if (mode != BY_OFFSET && position != null) {
+                        return new NodePage<N>(nodes, encode(extension, BY_HOOK, position));
+                    }
+                }
+                if (mode == BY_OFFSET) {
+                    long offset = 0;
+                    if (position != null) {
+                        try {
+                            offset = Long.parseLong(position);
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+                        }
+                    }
+                    Iterator<? extends Node> iterator = extension.open();
+                    for (long skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+                        iterator.next();
+                    }
+                    while (nodes.size() < limit && iterator.hasNext()) {
+                        Node node = iterator.next();
+                        offset++;
+                        if (nodeClass.isInstance(node)) {
+                            nodes.add(nodeClass.cast(node));
+                        }
+                    }
+                    boolean more = iterator.hasNext();
+                    if (extension.isShared()) {
+                        // the extension is its own iterator and only starts over once it has been exhausted
+                        while (iterator.hasNext()) {
+                            iterator.next();
+                        }
+                    }
+                    if (nodes.size() == limit && more) {
+                        return new NodePage<N>(nodes, encode(extension, BY_OFFSET, Long.toString(offset)));
+                    }
+                }
+            }
+            // this source is exhausted, move on to the next one
+            source++;
+            mode = BY_HOOK;
+            position = null;
+            if (source >= extensions.size()) {
+                return new NodePage<N>(nodes, null);
+            }
+            if (nodes.size() == limit) {
+                return new NodePage<N>(nodes, encode(extensions.get(source), BY_HOOK, null));
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the first {@link Node} with a name after the specified name.
+     *
+     * @param nodes the {@link Node}s, sorted by name.
+     * @param name  the name.
+     * @return the index of the first {@link Node} with a name after the specified name.
+     */
+    private static int after(@NonNull List<Node> nodes, @NonNull String name) {
+        int low = 0;
+        int high = nodes.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (nodes.get(mid).getNodeName().compareTo(name) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the extension with the specified class name.
+     *
+     * @param extensions the extensions.
+     * @param name       the class name.
+     * @return the index or {@code -1} if there is no such extension.
+     */
+    private static int indexOf(@NonNull List<NodeIterator<? extends Node>> extensions, @NonNull String name) {
+        for (int i = 0; i < extensions.size(); i++) {
+            if (extensions.get(i).getClass().getName().equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Encodes a cursor.
+     *
+     * @param extension the extension or {@code null} for {@link jenkins.model.Jenkins}.
+     * @param mode      the meaning of the position.
+     * @param position  the position or {@code null} for the start of the source.
+     * @return the cursor.
+     */
+    @NonNull
+    private static String encode(@CheckForNull NodeIterator<?> extension, int mode, @CheckForNull String position) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(extension == null ? "" : extension.getClass().getName());
+            out.writeByte(mode);
+            out.writeBoolean(position != null);
+            if (position != null) {
+                out.writeUTF(position);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // cannot happen with a ByteArrayOutputStream
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Node;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A {@link Flow.Publisher} of all the {@link Node}s of a specific type in the system, even nodes which are not
+ * attached to the main {@link jenkins.model.Jenkins} object. Each {@link Flow.Subscriber} gets its own walk of the
+ * {@link NodeIterator} extensions which is only advanced as far as the subscriber has requested, so an extension is
+ * not opened until the subscriber has requested a {@link Node} beyond those of the previous sources. The walk runs on
+ * a shared executor, starting only once {@link Flow.Subscriber#onSubscribe(Flow.Subscription)} has returned, and
+ * cancelling the {@link Flow.Subscription} interrupts any fetch that is in flight. A legacy extension that iterates
+ * itself rather than overriding {@link NodeIterator#spliterator()} only starts over once it has been exhausted, so
+ * it is never interrupted and a walk that is cancelled part way through it still walks it to its end.
+ *
+ * @param <N> the type of {@link Node}.
+ * @see NodeIterator#publisher(Class)
+ * @since TODO
+ */
+public final class NodePublisher<N extends Node> implements Flow.Publisher<N> {
+
+    /**
+     * Our logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(NodePublisher.class.getName());
+
+    /**
+     * The type of {@link Node}.
+     */
+    @NonNull
+    private final Class<N> nodeClass;
+
+    /**
+     * Constructor.
+     *
+     * @param nodeClass the type of {@link Node}.
+     */
+    NodePublisher(@NonNull Class<N> nodeClass) {
+        this.nodeClass = nodeClass;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void subscribe(@NonNull Flow.Subscriber<? super N> subscriber) {
+        subscriber.getClass(); // throw NPE if null
+        NodeSubscription subscription = new NodeSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.subscribed();
+    }
+
+    /**
+     * A single subscription, delivering {@link Node}s from a pool thread while there is outstanding demand.
+     */
+    private final class NodeSubscription implements Flow.Subscription, Runnable {
+
+        /**
+         * The subscriber.
+         */
+        @NonNull
+        private final Flow.Subscriber<? super N> subscriber;
+        /**
+         * The outstanding demand, {@link Long#MAX_VALUE} being unbounded. A delivery task is running, or
+         * {@link #deferred} until {@link Flow.Subscriber#onSubscribe(Flow.Subscription)} returns, whenever this is
+         * non-zero.
+         */
+        private final AtomicLong demand = new AtomicLong();
+        /**
+         * {@code true} once {@link Flow.Subscriber#onSubscribe(Flow.Subscription)} has returned, as no other signal
+         * may be sent before then (rule 1.3).
+         */
+        private volatile boolean subscribed;
+        /**
+         * {@code true} if demand arrived before {@link #subscribed}, so the delivery task still has to be started by
+         * whichever of {@link #request(long)} and {@link #subscribed()} clears this.
+         */
+        private final AtomicBoolean deferred = new AtomicBoolean();
+        /**
+         * The walk of the sources, created by the first delivery task.
+         */
+        @CheckForNull
+        private volatile NodeIterator.MetaNodeIterator<N> iterator;
+        /**
+         * {@code true} once the subscription has been cancelled or has terminated.
+         */
+        private volatile boolean cancelled;
+        /**
+         * {@code true} once a delivery task has stopped the walk after the subscription was cancelled or terminated.
+         */
+        private final AtomicBoolean abandoned = new AtomicBoolean();
+        /**
+         * {@code true} if the subscriber has requested a non-positive number of {@link Node}s.
+         */
+        private volatile boolean invalid;
+        /**
+         * The thread running the delivery task, guarded by {@code this}.
+         */
+        @CheckForNull
+        private Thread runner;
+
+        /**
+         * Constructor.
+         *
+         * @param subscriber the subscriber.
+         */
+        NodeSubscription(@NonNull Flow.Subscriber<? super N> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void request(long n) {
+            if (cancelled) {
+                return;
+            }
+            if (n <= 0) {
+                // signalled from the delivery task so that it is serialized with onNext
+                invalid = true;
+                n = 1;
+            }
+            long current;
+            long updated;
+            do {
+                current = demand.get();
+                updated = current + n < 0 ? Long.MAX_VALUE : current + n;
+            } while (!demand.compareAndSet(current, updated));
+            if (current == 0) {
+                if (subscribed) {
+                    NodeIteratorExecutor.get().execute(this);
+                } else {
+                    deferred.set(true);
+                    // onSubscribe may have returned meanwhile on another thread
+                    if (subscribed && deferred.compareAndSet(true, false)) {
+                        NodeIteratorExecutor.get().execute(this);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Called once {@link Flow.Subscriber#onSubscribe(Flow.Subscription)} has returned, to start delivering any
+         * demand that the subscriber signalled from it.
+         */
+        void subscribed() {
+            subscribed = true;
+            if (deferred.compareAndSet(true, false)) {
+                NodeIteratorExecutor.get().execute(this);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void cancel() {
+            cancelled = true;
+            synchronized (this) {
+                NodeIterator.MetaNodeIterator<N> iterator = this.iterator;
+                if (runner != null && runner != Thread.currentThread()
+                        && !(iterator != null && iterator.isWalkingShared())) {
+                    runner.interrupt();
+                }
+            }
+            // without outstanding demand no delivery task is running, start one to stop the walk
+            if (subscribed && demand.compareAndSet(0, 1)) {
+                NodeIteratorExecutor.get().execute(this);
+            }
+        }
+
+        /**
+         * Delivers {@link Node}s until the outstanding demand is met or the walk terminates.
+         */
+        @Override
+        public void run() {
+            synchronized (this) {
+                runner = Thread.currentThread();
+            }
+            try {
+                deliver();
+            } finally {
+                if (cancelled) {
+                    abandon();
+                }
+                synchronized (this) {
+                    runner = null;
+                }
+                // clear any interrupt from a cancel that raced with the end of the task
+                Thread.interrupted();
+            }
+        }
+
+        /**
+         * Stops the walk once the subscription has been cancelled or has terminated, walking a legacy extension that
+         * it is part way through to its end.
+         */
+        private void abandon() {
+            NodeIterator.MetaNodeIterator<N> iterator = this.iterator;
+            if (iterator == null || !abandoned.compareAndSet(false, true)) {
+                return;
+            }
+            // clear any interrupt from a cancel that raced with moving into a legacy extension
+            Thread.interrupted();
+            try {
+                iterator.abandon();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.FINE, "Could not finish the cancelled walk of " + nodeClass.getName(), e);
+            }
+        }
+
+        /**
+         * Delivers {@link Node}s until the outstanding demand is met or the walk terminates.
+         */
+        private void deliver() {
+            NodeIterator.MetaNodeIterator<N> iterator = this.iterator;
+            try {
+                if (iterator == null) {
+                    iterator = new NodeIterator.MetaNodeIterator<N>(nodeClass);
+                    this.iterator = iterator;
+                }
+                long requested = demand.get();
+                while (true) {
+                    long emitted = 0;
+                    while (emitted != requested) {
+                        if (cancelled) {
+                            return;
+                        }
+                        if (invalid) {
+                            cancelled = true;
+                            subscriber.onError(new IllegalArgumentException("non-positive request (rule 3.9)"));
+                            return;
+                        }
+                        if (!iterator.hasNext()) {
+                            if (!cancelled) {
+                                cancelled = true;
+                                subscriber.onComplete();
+                            }
+                            return;
+                        }
+                        N node = iterator.next();
+                        if (cancelled) {
+                            return;
+                        }
+                        subscriber.onNext(node);
+                        emitted++;
+                    }
+                    if (requested == Long.MAX_VALUE) {
+                        requested = demand.get();
+                    } else {
+                        requested = demand.addAndGet(-emitted);
+                    }
+                    if (requested == 0) {
+                        return;
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (cancelled) {
+                    // most likely the interrupt from cancel() surfacing from an extension
+                    LOGGER.log(Level.FINE, "Cancelled walk of " + nodeClass.getName() + " ended with", e);
+                    return;
+                }
+                cancelled = true;
+                subscriber.onError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,475 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Node;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * A ready made {@link NodeIterator} for plugins that hold {@link Node}s which are not attached to the main
+ * {@link jenkins.model.Jenkins} object. Rather than writing their own {@link NodeIterator}, such plugins can subclass
+ * this class as an {@link hudson.Extension} and {@link #register(Node)} and {@link #unregister(Node)} their
+ * {@link Node}s:
+ * <pre>
+ * &#64;Extension
+ * public static class Registry extends NodeRegistry&lt;MySlave&gt; {
+ *     public Registry() {
+ *         super(MySlave.class);
+ *     }
+ * }
+ * </pre>
+ * The {@link Node}s are held in a {@link ConcurrentHashMap} so registration does not contend with iteration, and
+ * iteration is weakly consistent: it never throws {@link java.util.ConcurrentModificationException} and does not
+ * copy the registered {@link Node}s. A registry can optionally hold its {@link Node}s by weak reference so that a
+ * {@link Node} which is never unregistered does not pin memory. As the {@link NodeIterator} API cannot be told when
+ * the garbage collector has cleared such a {@link Node}, a weak registry does not {@linkplain #reportsChanges()
+ * report its changes}.
+ *
+ * @param <N> the type of {@link Node}.
+ * @since TODO
+ */
+public class NodeRegistry<N extends Node> extends NodeIterator<N> {
+
+    /**
+     * The type of {@link Node}.
+     */
+    @NonNull
+    private final Class<N> nodeType;
+    /**
+     * The queue of cleared references, or {@code null} if the {@link Node}s are held strongly.
+     */
+    @CheckForNull
+    private final ReferenceQueue<N> queue;
+    /**
+     * The registered {@link Node}s.
+     */
+    @NonNull
+    private final ConcurrentMap<Entry<N>, Entry<N>> entries = new ConcurrentHashMap<Entry<N>, Entry<N>>();
+    /**
+     * The registered {@link Node}s of each name, in the order they were registered. The lists are never modified
+     * once published, so that they can be read without locking.
+     */
+    @NonNull
+    private final ConcurrentMap<String, List<Entry<N>>> names = new ConcurrentHashMap<String, List<Entry<N>>>();
+    /**
+     * The walk used when this {@link NodeIterator} is itself iterated, guarded by {@code this}.
+     */
+    @CheckForNull
+    private Iterator<? extends N> legacy;
+
+    /**
+     * Creates a registry that holds its {@link Node}s strongly.
+     *
+     * @param nodeType the type of {@link Node}.
+     */
+    public NodeRegistry(@NonNull Class<N> nodeType) {
+        this(nodeType, false);
+    }
+
+    /**
+     * Creates a registry.
+     *
+     * @param nodeType the type of {@link Node}.
+     * @param weak     {@code true} to hold the {@link Node}s by weak reference.
+     */
+    public NodeRegistry(@NonNull Class<N> nodeType, boolean weak) {
+        nodeType.getClass(); // throw NPE if null
+        this.nodeType = nodeType;
+        this.queue = weak ? new ReferenceQueue<N>() : null;
+    }
+
+    /**
+     * Registers a {@link Node}.
+     *
+     * @param node the {@link Node}.
+     * @return {@code true} if the {@link Node} was not already registered.
+     */
+    public boolean register(@NonNull N node) {
+        nodeType.cast(node); // throw NPE if null
+        expunge();
+        Entry<N> entry = new Entry<N>(node, queue);
+        if (entries.putIfAbsent(entry, entry) != null) {
+            return false;
+        }
+        named(entry);
+        if (entries.get(entry) != entry) {
+            // unregistered concurrently, possibly before it was named, and the removal has been or will be reported
+            unnamed(entry);
+            return true;
+        }
+        if (queue == null) {
+            fireNodeAdded(node);
+        }
+        return true;
+    }
+
+    /**
+     * Unregisters a {@link Node}.
+     *
+     * @param node the {@link Node}.
+     * @return {@code true} if the {@link Node} was registered.
+     */
+    public boolean unregister(@NonNull N node) {
+        node.getClass(); // throw NPE if null
+        expunge();
+        Entry<N> entry = entries.remove(new Entry<N>(node, null));
+        if (entry == null) {
+            return false;
+        }
+        unnamed(entry);
+        // the reference is no longer needed, and must not be expunged a second time
+        entry.clear();
+        if (queue == null) {
+            fireNodeRemoved(node);
+        }
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if a {@link Node} is registered.
+     *
+     * @param node the {@link Node}.
+     * @return {@code true} if the {@link Node} is registered.
+     */
+    public boolean isRegistered(@NonNull N node) {
+        return entries.containsKey(new Entry<N>(node, null));
+    }
+
+    /**
+     * Returns the number of registered {@link Node}s. This is a constant time operation, for a registry holding its
+     * {@link Node}s by weak reference it includes any {@link Node}s that have been garbage collected but not yet
+     * expunged.
+     *
+     * @return the number of registered {@link Node}s.
+     */
+    public int size() {
+        expunge();
+        return entries.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @NonNull
+    protected Set<Class<? extends Node>> getNodeTypes() {
+        return Collections.<Class<? extends Node>>singleton(nodeType);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean reportsChanges() {
+        return queue == null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected long countNodes(@NonNull Class<? extends Node> nodeClass) {
+        if (nodeClass.isAssignableFrom(nodeType)) {
+            return size();
+        }
+        return nodeType.isAssignableFrom(nodeClass) ? -1 : 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @CheckForNull
+    protected Node getNode(@NonNull String name) {
+        List<Entry<N>> named = names.get(name);
+        if (named != null) {
+            // the most recently registered first
+            for (int i = named.size() - 1; i >= 0; i--) {
+                N node = named.get(i).node();
+                if (node != null) {
+                    return node;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @NonNull
+    protected Spliterator<N> spliterator() {
+        expunge();
+        return new EntrySpliterator<N>(entries.keySet().spliterator());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean hasNext() {
+        if (legacy == null) {
+            legacy = Spliterators.iterator(spliterator());
+        }
+        if (legacy.hasNext()) {
+            return true;
+        }
+        // start over for the next caller, as the original NodeIterator implementations did
+        legacy = null;
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized N next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return legacy.next();
+    }
+
+    /**
+     * Removes the entries of any {@link Node}s that have been garbage collected.
+     */
+    private void expunge() {
+        if (queue == null) {
+            return;
+        }
+        for (Reference<? extends N> ref; (ref = queue.poll()) != null; ) {
+            @SuppressWarnings("unchecked")
+            Entry<N> entry = (Entry<N>) ref;
+            entries.remove(entry);
+            unnamed(entry);
+        }
+    }
+
+    /**
+     * Adds an entry to {@link #names}.
+     *
+     * @param entry the entry.
+     */
+    private void named(@NonNull final Entry<N> entry) {
+        names.compute(entry.name, new BiFunction<String, List<Entry<N>>, List<Entry<N>>>() {
+            @Override
+            public List<Entry<N>> apply(String name, List<Entry<N>> named) {
+                if (named == null) {
+                    return Collections.singletonList(entry);
+                }
+                List<Entry<N>> result = new ArrayList<Entry<N>>(named.size() + 1);
+                result.addAll(named);
+                result.add(entry);
+                return result;
+            }
+        });
+    }
+
+    /**
+     * Removes an entry from {@link #names}, leaving any other {@link Node}s with the same name findable.
+     *
+     * @param entry the entry.
+     */
+    private void unnamed(@NonNull final Entry<N> entry) {
+        names.computeIfPresent(entry.name, new BiFunction<String, List<Entry<N>>, List<Entry<N>>>() {
+            @Override
+            public List<Entry<N>> apply(String name, List<Entry<N>> named) {
+                List<Entry<N>> result = new ArrayList<Entry<N>>(named.size());
+                for (Entry<N> e : named) {
+                    // by identity, a cleared entry is not equal to anything else
+                    if (e != entry) {
+                        result.add(e);
+                    }
+                }
+                return result.isEmpty() ? null : result;
+            }
+        });
+    }
+
+    /**
+     * A registered {@link Node}, compared by identity. The {@link Node} is held strongly unless the entry was created
+     * with a {@link ReferenceQueue}.
+     *
+     * @param <N> the type of {@link Node}.
+     */
+    private static final class Entry<N extends Node> extends WeakReference<N> {
+        /**
+         * The {@link Node} if held strongly.
+         */
+        @CheckForNull
+        private final N strong;
+        /**
+         * The identity hash code of the {@link Node}.
+         */
+        private final int hash;
+        /**
+         * The name of the {@link Node}.
+         */
+        @NonNull
+        private final String name;
+
+        /**
+         * Constructor.
+         *
+         * @param node  the {@link Node}.
+         * @param queue the queue to hold the {@link Node} weakly or {@code null} to hold it strongly.
+         */
+        Entry(@NonNull N node, @CheckForNull ReferenceQueue<N> queue) {
+            super(node, queue);
+            this.strong = queue == null ? node : null;
+            this.hash = System.identityHashCode(node);
+            this.name = node.getNodeName();
+        }
+
+        /**
+         * Returns the {@link Node}.
+         *
+         * @return the {@link Node} or {@code null} if it has been garbage collected.
+         */
+        @CheckForNull
+        N node() {
+            return strong != null ? strong : get();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            // a cleared entry is only equal to itself so that it can still be expunged
+            Object node = node();
+            return node != null && node == ((Entry<?>) o).node();
+        }
+    }
+
+    /**
+     * A weakly consistent {@link Spliterator} over the {@link Node}s of the registered entries, skipping any that
+     * have been garbage collected.
+     *
+     * @param <N> the type of {@link Node}.
+     */
+    private static final class EntrySpliterator<N extends Node> implements Spliterator<N>, Consumer<Entry<N>> {
+        /**
+         * The entries.
+         */
+        @NonNull
+        private final Spliterator<Entry<N>> entries;
+        /**
+         * The {@link Node} of the entry most recently advanced over.
+         */
+        @CheckForNull
+        private N current;
+
+        /**
+         * Constructor.
+         *
+         * @param entries the entries.
+         */
+        EntrySpliterator(@NonNull Spliterator<Entry<N>> entries) {
+            this.entries = entries;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void accept(Entry<N> entry) {
+            current = entry.node();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean tryAdvance(Consumer<? super N> action) {
+            while (entries.tryAdvance(this)) {
+                N node = current;
+                current = null;
+                if (node != null) {
+                    action.accept(node);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @CheckForNull
+        public Spliterator<N> trySplit() {
+            Spliterator<Entry<N>> split = entries.trySplit();
+            return split == null ? null : new EntrySpliterator<N>(split);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long estimateSize() {
+            return entries.estimateSize();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int characteristics() {
+            return Spliterator.CONCURRENT | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+    }
+}
@@ -0,0 +1,514 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Node;
+import jenkins.util.SystemProperties;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An immutable, generation stamped view of all the {@link Node}s of a specific type in the system. The current
+ * snapshot is cached and reused until either a change is reported (by {@link jenkins.model.NodeListener},
+ * {@link hudson.slaves.ComputerListener} or a {@link NodeIterator} extension) or, if any {@link NodeIterator}
+ * extension does not {@linkplain NodeIterator#reportsChanges() report its changes}, the snapshot is older than
+ * {@link #MAX_STALENESS} milliseconds.
+ * <p>
+ * A snapshot is made of one segment per source, the {@link Node}s attached to {@link jenkins.model.Jenkins} and those
+ * of each {@link NodeIterator} extension. When a new snapshot is built, the segment of every source that has not
+ * reported a change since the previous snapshot is reused rather than walked again, so successive snapshots share
+ * their unchanged segments, as do the snapshots of the different types of {@link Node}. The sources are walked again
+ * if a change is reported while they are being walked, so that the snapshot is {@linkplain #isConsistent() consistent}
+ * unless the sources keep changing.
+ *
+ * @param <N> the type of {@link Node}.
+ * @since TODO
+ */
+public final class NodeSnapshot<N extends Node> extends AbstractList<N> implements RandomAccess {
+
+    /**
+     * The maximum age in milliseconds of a cached snapshot when there are {@link NodeIterator} extensions that do not
+     * report their changes.
+     */
+    static final long MAX_STALENESS =
+            SystemProperties.getLong(NodeSnapshot.class.getName() + ".maxStaleness", 5000L);
+
+    /**
+     * The number of times the sources are walked in an attempt to get a consistent snapshot.
+     */
+    private static final int ATTEMPTS = 3;
+
+    /**
+     * Guards rebuilding {@link #cached}.
+     */
+    private static final Object LOCK = new Object();
+
+    /**
+     * Counts the calls to {@link #invalidate()}.
+     */
+    private static final AtomicLong INVALIDATIONS = new AtomicLong();
+
+    /**
+     * Counts the changes to the {@link Node}s attached to {@link jenkins.model.Jenkins}.
+     */
+    private static final AtomicLong JENKINS_VERSION = new AtomicLong();
+
+    /**
+     * Counts the changes to the {@link Node}s of each {@link NodeIterator} extension.
+     */
+    private static final ConcurrentMap<NodeIterator<?>, AtomicLong> VERSIONS =
+            new ConcurrentHashMap<NodeIterator<?>, AtomicLong>();
+
+    /**
+     * The cached snapshot.
+     */
+    @CheckForNull
+    private static volatile NodeSnapshot<Node> cached;
+
+    /**
+     * The segments.
+     */
+    @NonNull
+    private final Segment[] segments;
+    /**
+     * The index after the last {@link Node} of each segment.
+     */
+    @NonNull
+    private final int[] ends;
+    /**
+     * The {@link NodeEvents#generation()} when this snapshot was started.
+     */
+    private final long generation;
+    /**
+     * The {@link #INVALIDATIONS} when this snapshot was started.
+     */
+    private final long invalidations;
+    /**
+     * The {@link System#nanoTime()} after which this snapshot is stale or {@link Long#MAX_VALUE} if it only goes
+     * stale when a change is reported.
+     */
+    private final long expires;
+    /**
+     * {@code true} if no change was reported while the sources were walked.
+     */
+    private final boolean consistent;
+
+    /**
+     * Constructor.
+     *
+     * @param segments      the segments.
+     * @param generation    the {@link NodeEvents#generation()} when this snapshot was started.
+     * @param invalidations the {@link #INVALIDATIONS} when this snapshot was started.
+     * @param expires       the {@link System#nanoTime()} after which this snapshot is stale.
+     * @param consistent    {@code true} if no change was reported while the sources were walked.
+     */
+    private NodeSnapshot(@NonNull Segment[] segments, long generation, long invalidations, long expires,
+                         boolean consistent) {
+        this.segments = segments;
+        this.ends = new int[segments.length];
+        int end = 0;
+        for (int i = 0; i < segments.length; i++) {
+            end += segments[i].nodes.length;
+            ends[i] = end;
+        }
+        this.generation = generation;
+        this.invalidations = invalidations;
+        this.expires = expires;
+        this.consistent = consistent;
+    }
+
+    /**
+     * Returns the current snapshot, building a new one if the cached snapshot is no longer current.
+     *
+     * @return the current snapshot.
+     */
+    @NonNull
+    static NodeSnapshot<Node> current() {
+        NodeSnapshot<Node> snapshot = cached;
+        if (snapshot != null && snapshot.isCurrent()) {
+            return snapshot;
+        }
+        synchronized (LOCK) {
+            snapshot = cached;
+            if (snapshot == null || !snapshot.isCurrent()) {
+                cached = snapshot = build(snapshot);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Returns the current snapshot of the {@link Node}s of a specific type.
+     *
+     * @param nodeClass the type of {@link Node}.
+     * @param <N>       the type of {@link Node}.
+     * @return the current snapshot of the {@link Node}s of the specified type.
+     */
+    @NonNull
+    static <N extends Node> NodeSnapshot<N> current(@NonNull Class<N> nodeClass) {
+        return current().of(nodeClass);
+    }
+
+    /**
+     * Discards the cached snapshot.
+     */
+    static void invalidate() {
+        JENKINS_VERSION.incrementAndGet();
+        INVALIDATIONS.incrementAndGet();
+    }
+
+    /**
+     * Records a change to the {@link Node}s of a source, so that its segment is not reused.
+     *
+     * @param source the {@link NodeIterator} extension or {@code null} for {@link jenkins.model.Jenkins}.
+     */
+    static void changed(@CheckForNull NodeIterator<?> source) {
+        if (source == null) {
+            JENKINS_VERSION.incrementAndGet();
+            return;
+        }
+        AtomicLong version = VERSIONS.get(source);
+        if (version == null) {
+            AtomicLong created = new AtomicLong();
+            version = VERSIONS.putIfAbsent(source, created);
+            if (version == null) {
+                version = created;
+            }
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * Discards the change counts of the extensions that are no longer registered.
+     *
+     * @param extensions the registered extensions.
+     */
+    static void retain(@NonNull Set<?> extensions) {
+        VERSIONS.keySet().retainAll(extensions);
+    }
+
+    /**
+     * Returns the change count of a source.
+     *
+     * @param source the {@link NodeIterator} extension or {@code null} for {@link jenkins.model.Jenkins}.
+     * @return the change count of the source.
+     */
+    private static long version(@CheckForNull NodeIterator<?> source) {
+        if (source == null) {
+            return JENKINS_VERSION.get();
+        }
+        AtomicLong version = VERSIONS.get(source);
+        return version == null ? 0L : version.get();
+    }
+
+    /**
+     * Walks the sources, reusing the segments of the previous snapshot where the source has not changed.
+     *
+     * @param previous the previous snapshot.
+     * @return the new snapshot.
+     */
+    @NonNull
+    private static NodeSnapshot<Node> build(@CheckForNull NodeSnapshot<Node> previous) {
+        Map<NodeIterator<?>, Segment> reusable = new IdentityHashMap<NodeIterator<?>, Segment>();
+        Segment jenkins = null;
+        if (previous != null) {
+            for (Segment segment : previous.segments) {
+                if (segment.source == null) {
+                    jenkins = segment;
+                } else if (segment.source.reportsChanges()) {
+                    reusable.put(segment.source, segment);
+                }
+            }
+        }
+        boolean bounded = !NodeSources.allReportChanges();
+        for (int attempt = 1; ; attempt++) {
+            long generation = NodeEvents.generation();
+            long invalidations = INVALIDATIONS.get();
+            long start = System.nanoTime();
+            List<NodeIterator<? extends Node>> extensions = NodeSources.extensions();
+            Segment[] segments = new Segment[extensions.size() + 1];
+            segments[0] = jenkins != null && jenkins.version == version(null) ? jenkins : Segment.jenkins();
+            for (int i = 0; i < extensions.size(); i++) {
+                NodeIterator<? extends Node> extension = extensions.get(i);
+                Segment segment = reusable.get(extension);
+                segments[i + 1] = segment != null && segment.version == version(extension)
+                        ? segment
+                        : Segment.walk(extension);
+            }
+            boolean consistent = generation == NodeEvents.generation() && invalidations == INVALIDATIONS.get();
+            if (consistent || attempt == ATTEMPTS) {
+                return new NodeSnapshot<Node>(segments, generation, invalidations,
+                        bounded ? start + TimeUnit.MILLISECONDS.toNanos(MAX_STALENESS) : Long.MAX_VALUE,
+                        consistent);
+            }
+            // reuse whatever did not change while we were walking
+            jenkins = segments[0];
+            for (int i = 1; i < segments.length; i++) {
+                if (segments[i].source.reportsChanges()) {
+                    reusable.put(segments[i].source, segments[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if no change has been reported since this snapshot was started and it has not expired.
+     *
+     * @return {@code true} if this snapshot can still be used.
+     */
+    private boolean isCurrent() {
+        return generation == NodeEvents.generation() && invalidations == INVALIDATIONS.get()
+                && (expires == Long.MAX_VALUE || System.nanoTime() - expires < 0);
+    }
+
+    /**
+     * Returns the {@link NodeIterator#generation()} when this snapshot was taken. Two snapshots with the same
+     * generation contain the same {@link Node}s, apart from the {@link Node}s of any extension that does not report
+     * its changes.
+     *
+     * @return the {@link NodeIterator#generation()} when this snapshot was taken.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns {@code true} if no change was reported while this snapshot was being taken, so that it reflects a
+     * single point in time. A {@link Node} that moved between sources while an inconsistent snapshot was being taken
+     * may be missing from it or present twice.
+     *
+     * @return {@code true} if this snapshot reflects a single point in time.
+     */
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return ends.length == 0 ? 0 : ends[ends.length - 1];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public N get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        int low = 0;
+        int high = ends.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] <= index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return (N) segments[low].nodes[index - (ends[low] - segments[low].nodes.length)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public Iterator<N> iterator() {
+        return new Iterator<N>() {
+            private int segment;
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                while (segment < segments.length) {
+                    if (index < segments[segment].nodes.length) {
+                        return true;
+                    }
+                    segment++;
+                    index = 0;
+                }
+                return false;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public N next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return (N) segments[segment].nodes[index++];
+            }
+        };
+    }
+
+    /**
+     * Returns the {@link Node}s of the specified type in this snapshot.
+     *
+     * @param nodeClass the type of {@link Node}
+     * @param <T>       the class type of node
+     * @return the {@link Node}s of the specified type in this snapshot.
+     */
+    @NonNull
+    public <T extends N> NodeSnapshot<T> nodes(@NonNull Class<T> nodeClass) {
+        nodeClass.getClass(); // throw NPE if null
+        return of(nodeClass);
+    }
+
+    /**
+     * Returns the snapshot of the {@link Node}s of the specified type, sharing the segments of this snapshot.
+     *
+     * @param nodeClass the type of {@link Node}
+     * @param <T>       the class type of node
+     * @return the {@link Node}s of the specified type in this snapshot.
+     */
+    @NonNull
+    private <T extends Node> NodeSnapshot<T> of(@NonNull Class<T> nodeClass) {
+        if (nodeClass == Node.class) {
+            @SuppressWarnings("unchecked")
+            NodeSnapshot<T> self = (NodeSnapshot<T>) this;
+            return self;
+        }
+        Segment[] typed = new Segment[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            typed[i] = segments[i].of(nodeClass);
+        }
+        return new NodeSnapshot<T>(typed, generation, invalidations, expires, consistent);
+    }
+
+    /**
+     * The {@link Node}s of a single source.
+     */
+    private static final class Segment {
+        /**
+         * An empty array.
+         */
+        private static final Node[] EMPTY = new Node[0];
+        /**
+         * The {@link NodeIterator} extension or {@code null} for {@link jenkins.model.Jenkins}.
+         */
+        @CheckForNull
+        private final NodeIterator<?> source;
+        /**
+         * The change count of the source before it was walked.
+         */
+        private final long version;
+        /**
+         * The {@link Node}s.
+         */
+        @NonNull
+        private final Node[] nodes;
+        /**
+         * The segments of the {@link Node}s of specific types, derived from this segment.
+         */
+        @NonNull
+        private final ConcurrentMap<Class<?>, Segment> typed = new ConcurrentHashMap<Class<?>, Segment>();
+
+        /**
+         * Constructor.
+         *
+         * @param source  the {@link NodeIterator} extension or {@code null} for {@link jenkins.model.Jenkins}.
+         * @param version the change count of the source before it was walked.
+         * @param nodes   the {@link Node}s.
+         */
+        private Segment(@CheckForNull NodeIterator<?> source, long version, @NonNull Node[] nodes) {
+            this.source = source;
+            this.version = version;
+            this.nodes = nodes;
+        }
+
+        /**
+         * Captures the {@link Node}s attached to {@link jenkins.model.Jenkins}.
+         *
+         * @return the segment.
+         */
+        @NonNull
+        static Segment jenkins() {
+            long version = version(null);
+            return new Segment(null, version, NodeSources.jenkinsNodes().toArray(EMPTY));
+        }
+
+        /**
+         * Walks a {@link NodeIterator} extension.
+         *
+         * @param extension the {@link NodeIterator} extension.
+         * @return the segment.
+         */
+        @NonNull
+        static Segment walk(@NonNull NodeIterator<? extends Node> extension) {
+            long version = version(extension);
+            List<Node> nodes = new ArrayList<Node>();
+            for (Iterator<? extends Node> i = extension.open(); i.hasNext(); ) {
+                nodes.add(i.next());
+            }
+            return new Segment(extension, version, nodes.toArray(EMPTY));
+        }
+
+        /**
+         * Returns the segment of the {@link Node}s of a specific type.
+         *
+         * @param nodeClass the type of {@link Node}.
+         * @return the segment of the {@link Node}s of the specified type.
+         */
+        @NonNull
+        Segment of(@NonNull Class<? extends Node> nodeClass) {
+            if (nodes.length == 0 || source != null && !source.canReturn(nodeClass)) {
+                return nodes.length == 0 ? this : new Segment(source, version, EMPTY);
+            }
+            Segment segment = typed.get(nodeClass);
+            if (segment == null) {
+                List<Node> matches = new ArrayList<Node>();
+                for (Node node : nodes) {
+                    if (nodeClass.isInstance(node)) {
+                        matches.add(node);
+                    }
+                }
+                segment = matches.size() == nodes.length ? this : new Segment(source, version, matches.toArray(EMPTY));
+                Segment existing = typed.putIfAbsent(nodeClass, segment);
+                if (existing != null) {
+                    segment = existing;
+                }
+            }
+            return segment;
+        }
+    }
+}
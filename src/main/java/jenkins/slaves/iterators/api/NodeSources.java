@@ -0,0 +1,339 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.ExtensionList;
+import hudson.ExtensionListListener;
+import hudson.model.Node;
+import jenkins.model.Jenkins;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves the sources of {@link Node} instances that the {@link NodeIterator} API walks: the nodes attached to the
+ * main {@link Jenkins} object followed by each of the {@link NodeIterator} extensions. The extensions are resolved
+ * once into an immutable {@link Extensions} table, together with what can be precomputed about them, and the table is
+ * only rebuilt when the {@link ExtensionList} reports a change, so the per call cost is a volatile read.
+ */
+final class NodeSources {
+
+    /**
+     * Counts the changes reported by the {@link ExtensionList}.
+     */
+    private static final AtomicLong CHANGES = new AtomicLong();
+
+    /**
+     * The {@link ExtensionList} that we are listening to.
+     */
+    @CheckForNull
+    private static ExtensionList<?> listening;
+
+    /**
+     * The resolved extensions.
+     */
+    @CheckForNull
+    private static volatile Extensions extensions;
+
+    /**
+     * The sources to use instead of those of {@link Jenkins}, for benchmarks that run without a controller.
+     */
+    @CheckForNull
+    private static volatile Fixed fixed;
+
+    /**
+     * Utility class.
+     */
+    private NodeSources() {
+    }
+
+    /**
+     * Replaces the sources of {@link Jenkins} with the specified sources, for benchmarks that run without a
+     * controller. The benchmarks in {@code src/benchmark/java} use this so that they measure the {@link NodeIterator}
+     * API rather than the persistence of {@link Jenkins#setNodes(List)}.
+     *
+     * @param nodes      the {@link Node}s to treat as attached to {@link Jenkins} or {@code null} to restore the
+     *                   sources of {@link Jenkins}.
+     * @param extensions the {@link NodeIterator} extensions.
+     */
+    static void fix(@CheckForNull List<Node> nodes, @NonNull List<NodeIterator<? extends Node>> extensions) {
+        fixed = nodes == null ? null : new Fixed(nodes, extensions);
+    }
+
+    /**
+     * Returns {@code true} if the sources can be resolved.
+     *
+     * @return {@code false} during startup.
+     */
+    static boolean isAvailable() {
+        return fixed != null || Jenkins.getInstanceOrNull() != null;
+    }
+
+    /**
+     * Returns the {@link Node}s attached to the main {@link Jenkins} object.
+     *
+     * @return the {@link Node}s attached to the main {@link Jenkins} object, empty during startup.
+     */
+    @NonNull
+    static List<Node> jenkinsNodes() {
+        Fixed fixed = NodeSources.fixed;
+        if (fixed != null) {
+            return fixed.nodes;
+        }
+        final Jenkins instance = Jenkins.getInstanceOrNull();
+        return instance == null ? Collections.<Node>emptyList() : instance.getNodes();
+    }
+
+    /**
+     * Returns the {@link Node} attached to the main {@link Jenkins} object with the specified name.
+     *
+     * @param name the name of the {@link Node}.
+     * @return the {@link Node} or {@code null} if there is no such {@link Node}.
+     */
+    @CheckForNull
+    static Node jenkinsNode(@NonNull String name) {
+        Fixed fixed = NodeSources.fixed;
+        if (fixed != null) {
+            return fixed.byName.get(name);
+        }
+        final Jenkins instance = Jenkins.getInstanceOrNull();
+        return instance == null ? null : instance.getNode(name);
+    }
+
+    /**
+     * Returns the {@link NodeIterator} extensions.
+     *
+     * @return the {@link NodeIterator} extensions, empty during startup.
+     */
+    @NonNull
+    static List<NodeIterator<? extends Node>> extensions() {
+        return resolve().list;
+    }
+
+    /**
+     * Returns the {@link NodeIterator} extensions that could return {@link Node} instances of the specified type.
+     *
+     * @param nodeClass the type of {@link Node}.
+     * @return the {@link NodeIterator} extensions that could return {@link Node} instances of the specified type.
+     * @see NodeIterator#getNodeTypes()
+     */
+    @NonNull
+    static List<NodeIterator<? extends Node>> extensions(@NonNull Class<? extends Node> nodeClass) {
+        return resolve().of(nodeClass);
+    }
+
+    /**
+     * Returns {@code true} if every {@link NodeIterator} extension
+     * {@linkplain NodeIterator#reportsChanges() reports its changes}.
+     *
+     * @return {@code true} if every {@link NodeIterator} extension reports its changes.
+     */
+    static boolean allReportChanges() {
+        return resolve().allReportChanges;
+    }
+
+    /**
+     * Returns the current {@link Extensions}, resolving them if necessary.
+     *
+     * @return the current {@link Extensions}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @NonNull
+    private static Extensions resolve() {
+        Fixed fixed = NodeSources.fixed;
+        if (fixed != null) {
+            return fixed.extensions;
+        }
+        Extensions extensions = NodeSources.extensions;
+        final Jenkins instance = Jenkins.getInstanceOrNull();
+        if (extensions != null && extensions.jenkins == instance && extensions.changes == CHANGES.get()) {
+            return extensions;
+        }
+        if (instance == null) {
+            return Extensions.EMPTY;
+        }
+        synchronized (NodeSources.class) {
+            long changes = CHANGES.get();
+            ExtensionList<NodeIterator> list = instance.getExtensionList(NodeIterator.class);
+            if (listening != list) {
+                final ExtensionList<NodeIterator> listened = list;
+                list.addListener(new ExtensionListListener() {
+                    @Override
+                    public void onChange() {
+                        CHANGES.incrementAndGet();
+                        retain(listened);
+                    }
+                });
+                listening = list;
+            }
+            extensions = new Extensions(instance, changes, (List) list);
+            NodeSources.extensions = extensions;
+            return extensions;
+        }
+    }
+
+    /**
+     * Discards the state kept for each extension by the caches and metrics of the {@link NodeIterator} API once the
+     * extension is no longer registered.
+     *
+     * @param registered the registered extensions.
+     */
+    private static void retain(@NonNull List<?> registered) {
+        Set<Object> extensions = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        extensions.addAll(registered);
+        NodeIteratorMetrics.get().retain(extensions);
+        CompletenessCache.retain(extensions);
+        NodeSnapshot.retain(extensions);
+        CompletenessHistory.get().retain(extensions);
+    }
+
+    /**
+     * The resolved {@link NodeIterator} extensions.
+     */
+    private static final class Extensions {
+        /**
+         * No extensions.
+         */
+        private static final Extensions EMPTY =
+                new Extensions(null, 0L, Collections.<NodeIterator<? extends Node>>emptyList());
+
+        /**
+         * The {@link Jenkins} instance the extensions were resolved from.
+         */
+        @CheckForNull
+        private final Jenkins jenkins;
+        /**
+         * The {@link #CHANGES} when the extensions were resolved.
+         */
+        private final long changes;
+        /**
+         * The extensions.
+         */
+        @NonNull
+        private final List<NodeIterator<? extends Node>> list;
+        /**
+         * {@code true} if every extension reports its changes.
+         */
+        private final boolean allReportChanges;
+        /**
+         * The extensions that could return each type of {@link Node}.
+         */
+        @NonNull
+        private final ConcurrentMap<Class<?>, List<NodeIterator<? extends Node>>> byType =
+                new ConcurrentHashMap<Class<?>, List<NodeIterator<? extends Node>>>();
+
+        /**
+         * Constructor.
+         *
+         * @param jenkins    the {@link Jenkins} instance the extensions were resolved from.
+         * @param changes    the {@link #CHANGES} when the extensions were resolved.
+         * @param extensions the extensions.
+         */
+        Extensions(@CheckForNull Jenkins jenkins, long changes,
+                   @NonNull List<NodeIterator<? extends Node>> extensions) {
+            this.jenkins = jenkins;
+            this.changes = changes;
+            @SuppressWarnings("unchecked")
+            NodeIterator<? extends Node>[] array = extensions.toArray(new NodeIterator[0]);
+            this.list = Collections.unmodifiableList(Arrays.asList(array));
+            boolean allReportChanges = true;
+            for (NodeIterator<? extends Node> extension : array) {
+                allReportChanges = allReportChanges && extension.reportsChanges();
+            }
+            this.allReportChanges = allReportChanges;
+        }
+
+        /**
+         * Returns the extensions that could return {@link Node} instances of the specified type.
+         *
+         * @param nodeClass the type of {@link Node}.
+         * @return the extensions that could return {@link Node} instances of the specified type.
+         */
+        @NonNull
+        List<NodeIterator<? extends Node>> of(@NonNull Class<? extends Node> nodeClass) {
+            if (nodeClass == Node.class) {
+                return list;
+            }
+            List<NodeIterator<? extends Node>> result = byType.get(nodeClass);
+            if (result == null) {
+                List<NodeIterator<? extends Node>> filtered = new ArrayList<NodeIterator<? extends Node>>(list.size());
+                for (NodeIterator<? extends Node> extension : list) {
+                    if (extension.canReturn(nodeClass)) {
+                        filtered.add(extension);
+                    }
+                }
+                result = filtered.size() == list.size() ? list : Collections.unmodifiableList(filtered);
+                byType.put(nodeClass, result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Sources that replace those of {@link Jenkins}.
+     */
+    private static final class Fixed {
+        /**
+         * The {@link Node}s to treat as attached to {@link Jenkins}.
+         */
+        @NonNull
+        private final List<Node> nodes;
+        /**
+         * The {@link #nodes} by name.
+         */
+        @NonNull
+        private final Map<String, Node> byName;
+        /**
+         * The {@link NodeIterator} extensions.
+         */
+        @NonNull
+        private final Extensions extensions;
+
+        /**
+         * Constructor.
+         *
+         * @param nodes      the {@link Node}s to treat as attached to {@link Jenkins}.
+         * @param extensions the {@link NodeIterator} extensions.
+         */
+        Fixed(@NonNull List<Node> nodes, @NonNull List<NodeIterator<? extends Node>> extensions) {
+            this.nodes = Collections.unmodifiableList(new ArrayList<Node>(nodes));
+            this.byName = new HashMap<String, Node>();
+            for (Node node : nodes) {
+                byName.put(node.getNodeName(), node);
+            }
+            this.extensions = new Extensions(null, 0L, extensions);
+        }
+    }
+}
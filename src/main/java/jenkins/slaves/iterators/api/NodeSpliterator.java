@@ -0,0 +1,273 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Node;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Spliterator} over the {@link Node}s of a given type from a number of sources. Splitting happens first
+ * across the sources and then within whichever source remains, so that a parallel traversal can spread the sources
+ * (and the {@link Node}s attached to {@link jenkins.model.Jenkins}) across cores.
+ *
+ * @param <N> the class type of node.
+ */
+final class NodeSpliterator<N extends Node> implements Spliterator<N> {
+
+    /**
+     * The type of {@link Node} that we are iterating.
+     */
+    @NonNull
+    private final Class<N> nodeClass;
+    /**
+     * The sources, only the slots between {@link #origin} (inclusive) and {@link #fence} (exclusive) belong to us.
+     */
+    @NonNull
+    private final Spliterator<? extends Node>[] sources;
+    /**
+     * The first source that we have not yet exhausted.
+     */
+    private int origin;
+    /**
+     * One past the last source that belongs to us.
+     */
+    private final int fence;
+    /**
+     * The last matching node handed to {@link #capture}.
+     */
+    @CheckForNull
+    private N found;
+    /**
+     * Captures the next node from the current source if it is of the type we are iterating.
+     */
+    private final Consumer<Node> capture = new Consumer<Node>() {
+        @Override
+        public void accept(Node node) {
+            if (nodeClass.isInstance(node)) {
+                found = nodeClass.cast(node);
+            }
+        }
+    };
+
+    /**
+     * Constructs the spliterator.
+     *
+     * @param nodeClass the type of {@link Node} that we are iterating.
+     * @param sources   the sources.
+     * @param origin    the first source that belongs to this spliterator.
+     * @param fence     one past the last source that belongs to this spliterator.
+     */
+    NodeSpliterator(@NonNull Class<N> nodeClass, @NonNull Spliterator<? extends Node>[] sources, int origin,
+                    int fence) {
+        this.nodeClass = nodeClass;
+        this.sources = sources;
+        this.origin = origin;
+        this.fence = fence;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super N> action) {
+        while (origin < fence) {
+            if (!sources[origin].tryAdvance(capture)) {
+                sources[origin++] = null;
+            } else if (found != null) {
+                N next = found;
+                found = null;
+                action.accept(next);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachRemaining(final Consumer<? super N> action) {
+        final Consumer<Node> filter = new Consumer<Node>() {
+            @Override
+            public void accept(Node node) {
+                if (nodeClass.isInstance(node)) {
+                    action.accept(nodeClass.cast(node));
+                }
+            }
+        };
+        while (origin < fence) {
+            sources[origin].forEachRemaining(filter);
+            sources[origin++] = null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @CheckForNull
+    public Spliterator<N> trySplit() {
+        int remaining = fence - origin;
+        if (remaining > 1) {
+            int mid = origin + remaining / 2;
+            Spliterator<N> prefix = new NodeSpliterator<N>(nodeClass, sources, origin, mid);
+            origin = mid;
+            return prefix;
+        }
+        if (remaining == 1) {
+            Spliterator<? extends Node> split = sources[origin].trySplit();
+            if (split != null) {
+                @SuppressWarnings("unchecked")
+                Spliterator<? extends Node>[] prefix = new Spliterator[]{split};
+                return new NodeSpliterator<N>(nodeClass, prefix, 0, 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long estimateSize() {
+        long size = 0;
+        for (int i = origin; i < fence; i++) {
+            size += sources[i].estimateSize();
+            if (size < 0) {
+                return Long.MAX_VALUE;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int characteristics() {
+        int characteristics = NONNULL;
+        if (nodeClass == Node.class) {
+            // no filtering, so the sizes reported by our sources are exact if they say they are
+            int common = SIZED | SUBSIZED;
+            for (int i = origin; i < fence; i++) {
+                common &= sources[i].characteristics();
+            }
+            characteristics |= common;
+        }
+        return characteristics;
+    }
+
+    /**
+     * A {@link Spliterator} over a legacy {@link NodeIterator} extension that iterates itself, which walks the
+     * extension to its end the first time it is used, as such an extension only starts over once it has been
+     * exhausted.
+     */
+    static final class Walked implements Spliterator<Node> {
+        /**
+         * The extension.
+         */
+        @NonNull
+        private final NodeIterator<? extends Node> extension;
+        /**
+         * The {@link Node}s of the extension, once it has been walked.
+         */
+        @CheckForNull
+        private Spliterator<Node> nodes;
+
+        /**
+         * Constructor.
+         *
+         * @param extension the extension.
+         */
+        Walked(@NonNull NodeIterator<? extends Node> extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * Walks the extension to its end if that has not been done yet.
+         *
+         * @return the {@link Node}s of the extension.
+         */
+        @NonNull
+        private Spliterator<Node> nodes() {
+            if (nodes == null) {
+                List<Node> walked = new ArrayList<Node>();
+                for (Iterator<? extends Node> i = extension.open(); i.hasNext(); ) {
+                    walked.add(i.next());
+                }
+                nodes = walked.spliterator();
+            }
+            return nodes;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean tryAdvance(Consumer<? super Node> action) {
+            return nodes().tryAdvance(action);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void forEachRemaining(Consumer<? super Node> action) {
+            nodes().forEachRemaining(action);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @CheckForNull
+        public Spliterator<Node> trySplit() {
+            return nodes().trySplit();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long estimateSize() {
+            return nodes == null ? Long.MAX_VALUE : nodes.estimateSize();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int characteristics() {
+            return NONNULL;
+        }
+    }
+}
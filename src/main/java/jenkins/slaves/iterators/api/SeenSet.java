@@ -0,0 +1,146 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Node;
+
+/**
+ * A compact set of the {@link Node}s that have been seen, keyed either by identity or by name. This is an open
+ * addressing hash table holding the keys directly in a single array, so there is no per entry allocation and the
+ * footprint is one reference per slot. The table is kept at most half full: 100,000 {@link Node}s need 262,144 slots,
+ * about 1 MiB with compressed references, where a {@link java.util.HashSet} would need over 4 MiB.
+ */
+final class SeenSet {
+
+    /**
+     * The minimum number of slots.
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * {@code true} to key by name, {@code false} to key by identity.
+     */
+    private final boolean byName;
+    /**
+     * The slots, each either {@code null} or a key.
+     */
+    @NonNull
+    private Object[] table;
+    /**
+     * The number of keys.
+     */
+    private int size;
+
+    /**
+     * Constructor.
+     *
+     * @param distinctBy how to key the {@link Node}s.
+     * @param expected   the expected number of {@link Node}s.
+     */
+    SeenSet(@NonNull DistinctBy distinctBy, int expected) {
+        this.byName = distinctBy == DistinctBy.NAME;
+        int capacity = MIN_CAPACITY;
+        while (capacity < expected * 2 && capacity < 1 << 30) {
+            capacity <<= 1;
+        }
+        this.table = new Object[capacity];
+    }
+
+    /**
+     * Adds a {@link Node} to the set.
+     *
+     * @param node the {@link Node}.
+     * @return {@code true} if the {@link Node} had not been seen before.
+     */
+    boolean add(@NonNull Node node) {
+        Object key = byName ? node.getNodeName() : node;
+        if (key == null) {
+            return true; // cannot be matched
+        }
+        if (insert(table, key)) {
+            if (++size * 2 > table.length) {
+                resize();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of {@link Node}s seen.
+     *
+     * @return the number of {@link Node}s seen.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Inserts a key into a table.
+     *
+     * @param table the table.
+     * @param key   the key.
+     * @return {@code true} if the key was inserted, {@code false} if it was already present.
+     */
+    private boolean insert(@NonNull Object[] table, @NonNull Object key) {
+        int mask = table.length - 1;
+        int i = hash(key) & mask;
+        while (true) {
+            Object slot = table[i];
+            if (slot == null) {
+                table[i] = key;
+                return true;
+            }
+            if (slot == key || byName && slot.equals(key)) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * Doubles the number of slots.
+     */
+    private void resize() {
+        Object[] resized = new Object[table.length << 1];
+        for (Object key : table) {
+            if (key != null) {
+                insert(resized, key);
+            }
+        }
+        table = resized;
+    }
+
+    /**
+     * Spreads the hash of a key.
+     *
+     * @param key the key.
+     * @return the spread hash.
+     */
+    private int hash(@NonNull Object key) {
+        int h = byName ? key.hashCode() : System.identityHashCode(key);
+        return (h ^ (h >>> 16)) * 0x9E3779B9;
+    }
+}
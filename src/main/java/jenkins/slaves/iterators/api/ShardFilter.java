@@ -0,0 +1,148 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Node;
+
+/**
+ * A {@link NodeFilter} that selects one of a number of shards of the {@link Node}s, by a hash of
+ * {@link Node#getNodeName()} that is stable across JVMs and restarts. Workers that each iterate a different shard see
+ * every {@link Node} exactly once between them without any coordination. {@link NodeIterator} extensions that can
+ * partition their {@link Node} instances at the source should recognise this filter in
+ * {@link NodeIterator#filtered(NodeFilter)} and use {@link #shardOf(String, int)} to assign names to shards.
+ *
+ * @see NodeIterator#partition(Class, int, int)
+ * @since TODO
+ */
+public final class ShardFilter implements NodeFilter {
+
+    /**
+     * Ensure consistent serialization.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The shard.
+     */
+    private final int shard;
+    /**
+     * The number of shards.
+     */
+    private final int shardCount;
+
+    /**
+     * Constructor.
+     *
+     * @param shard      the shard, from {@code 0} to {@code shardCount - 1}.
+     * @param shardCount the number of shards.
+     * @throws IllegalArgumentException if the shard is not one of the shards.
+     */
+    public ShardFilter(int shard, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+        }
+        if (shard < 0 || shard >= shardCount) {
+            throw new IllegalArgumentException("shard must be from 0 to " + (shardCount - 1) + ": " + shard);
+        }
+        this.shard = shard;
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * Returns the shard that a name belongs to. As {@link String#hashCode()} is specified, the shard of a name is the
+     * same on every JVM.
+     *
+     * @param name       the name of the {@link Node}.
+     * @param shardCount the number of shards.
+     * @return the shard, from {@code 0} to {@code shardCount - 1}.
+     */
+    public static int shardOf(@NonNull String name, int shardCount) {
+        int h = name.hashCode();
+        // spread the bits so that names differing only in a suffix do not cluster
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return Math.floorMod(h, shardCount);
+    }
+
+    /**
+     * Returns the shard.
+     *
+     * @return the shard.
+     */
+    public int getShard() {
+        return shard;
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return the number of shards.
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean test(@NonNull Node node) {
+        return shardOf(node.getNodeName(), shardCount) == shard;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ShardFilter)) {
+            return false;
+        }
+        ShardFilter that = (ShardFilter) o;
+        return shard == that.shard && shardCount == that.shardCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return 31 * shard + shardCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "ShardFilter{" + shard + "/" + shardCount + "}";
+    }
+}
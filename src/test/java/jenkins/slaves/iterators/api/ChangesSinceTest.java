@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import hudson.slaves.DumbSlave;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChangesSinceTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void recordsReportedChanges() throws Exception {
+        Registry registry = ExtensionList.lookupSingleton(Registry.class);
+        long start = NodeIterator.generation();
+        FakeNode b = new FakeNode("b");
+        DumbSlave a = j.createSlave("a", null, null);
+        registry.register(b);
+        registry.unregister(b);
+        j.jenkins.removeNode(a);
+        NodeChanges changes = NodeIterator.changesSince(start);
+        assertFalse(changes.isResyncRequired());
+        assertEquals(Arrays.asList("ADDED a", "ADDED b", "REMOVED b", "REMOVED a"), describe(changes));
+        assertEquals(NodeIterator.generation(), changes.getGeneration());
+        assertEquals(0, NodeIterator.changesSince(changes.getGeneration()).getChanges().size());
+    }
+
+    @Test
+    public void requiresAResyncAfterUnreportedChangesToJenkins() throws Exception {
+        DumbSlave a = j.createSlave("a", null, null);
+        long start = NodeIterator.changesSince(NodeIterator.generation()).getGeneration();
+        j.jenkins.setNodes(Collections.singletonList(new DumbSlave("b", "/tmp", j.createComputerLauncher(null))));
+        NodeChanges changes = NodeIterator.changesSince(start);
+        assertTrue(changes.isResyncRequired());
+        assertFalse(NodeIterator.changesSince(changes.getGeneration()).isResyncRequired());
+        assertEquals(null, j.jenkins.getNode(a.getNodeName()));
+    }
+
+    @Test
+    public void requiresAResyncWithExtensionsThatDoNotReport() {
+        long start = NodeIterator.generation();
+        ExtensionList.lookupSingleton(Registry.class).register(new FakeNode("b"));
+        assertTrue(NodeIterator.changesSince(start).isResyncRequired());
+    }
+
+    private static List<String> describe(NodeChanges changes) {
+        List<String> result = new ArrayList<String>();
+        for (NodeChange change : changes.getChanges()) {
+            result.add(change.getType() + " " + change.getNode().getNodeName());
+        }
+        return result;
+    }
+
+    @TestExtension
+    public static class Registry extends NodeRegistry<FakeNode> {
+        public Registry() {
+            super(FakeNode.class);
+        }
+    }
+
+    @TestExtension("requiresAResyncWithExtensionsThatDoNotReport")
+    public static class Legacy extends FakeLegacy {
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompletenessHistoryTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void recordsWindowsOfIncompleteness() {
+        Lender lender = ExtensionList.lookupSingleton(Lender.class);
+        assertTrue(NodeIterator.isComplete(FakeNode.class));
+        assertTrue("complete when first asked is not a transition", transitions().isEmpty());
+
+        lender.connected = false;
+        lender.fireCompletenessChanged();
+        assertFalse(NodeIterator.isComplete(FakeNode.class));
+        assertFalse(NodeIterator.isComplete(FakeNode.class));
+        List<CompletenessTransition> transitions = transitions();
+        assertEquals(1, transitions.size());
+        assertFalse(transitions.get(0).isComplete());
+        assertEquals(FakeNode.class.getName(), transitions.get(0).getNodeClass());
+        assertEquals(1, incomplete().size());
+
+        lender.connected = true;
+        lender.fireCompletenessChanged();
+        assertTrue(NodeIterator.isComplete(FakeNode.class));
+        transitions = transitions();
+        assertEquals(2, transitions.size());
+        assertTrue(transitions.get(1).isComplete());
+        assertTrue(transitions.get(1).getPreviousDuration() >= 0);
+        assertTrue(incomplete().isEmpty());
+    }
+
+    private static List<CompletenessTransition> transitions() {
+        return ours(CompletenessHistory.get().getTransitions());
+    }
+
+    private static List<CompletenessTransition> incomplete() {
+        return ours(CompletenessHistory.get().getIncomplete());
+    }
+
+    private static List<CompletenessTransition> ours(List<CompletenessTransition> transitions) {
+        List<CompletenessTransition> result = new ArrayList<CompletenessTransition>();
+        for (CompletenessTransition transition : transitions) {
+            if (transition.getExtension().equals(Lender.class.getName())) {
+                result.add(transition);
+            }
+        }
+        return result;
+    }
+
+    @TestExtension
+    public static class Lender extends FakeLender {
+    }
+}
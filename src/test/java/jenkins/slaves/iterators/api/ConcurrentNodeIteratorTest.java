@@ -0,0 +1,165 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import hudson.model.Node;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentNodeIteratorTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void returnsTheNodesOfEverySource() throws Exception {
+        ExtensionList.lookupSingleton(Lender.class).lend("a", "b");
+        ExtensionList.lookupSingleton(Stalling.class).lend("c");
+        j.createSlave("d", null, null);
+        ConcurrentNodeIterator<Node> iterator = NodeIterator.concurrentIterator(Node.class, 1, TimeUnit.MINUTES);
+        Set<String> names = names(iterator);
+        assertTrue(names.toString(), names.containsAll(Arrays.asList("a", "b", "c", "d")));
+        assertEquals(Collections.emptyList(), iterator.getIncomplete());
+    }
+
+    @Test
+    public void abandonsStalledSourcesAndDropsTheirNodes() throws Exception {
+        ExtensionList.lookupSingleton(Lender.class).lend("a", "b");
+        Stalling stalling = ExtensionList.lookupSingleton(Stalling.class);
+        stalling.lend("c");
+        stalling.stalled = true;
+        try {
+            ConcurrentNodeIterator<FakeNode> iterator =
+                    NodeIterator.concurrentIterator(FakeNode.class, 200, TimeUnit.MILLISECONDS);
+            // "c" arrives well before the deadline but is not consumed until after it
+            Thread.sleep(500);
+            assertEquals(new HashSet<String>(Arrays.asList("a", "b")), names(iterator));
+            assertEquals(Collections.singletonList(stalling), iterator.getIncomplete());
+        } finally {
+            stalling.release.countDown();
+        }
+    }
+
+    @Test
+    public void walksAbandonedLegacySourcesToTheEnd() throws Exception {
+        StallingLegacy legacy = ExtensionList.lookupSingleton(StallingLegacy.class);
+        legacy.lend("a", "b", "c", "d");
+        legacy.stalled = true;
+        ConcurrentNodeIterator<FakeNode> iterator =
+                NodeIterator.concurrentIterator(FakeNode.class, 200, TimeUnit.MILLISECONDS);
+        Set<String> names = names(iterator);
+        assertEquals(Collections.singletonList(legacy), iterator.getIncomplete());
+        assertTrue(names.toString(), names.size() < 4);
+        assertTrue("left part way through", legacy.index > 0);
+        legacy.release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (legacy.index != 0) {
+            assertTrue("never walked to the end", System.nanoTime() - deadline < 0);
+            Thread.sleep(10);
+        }
+        assertEquals(new HashSet<String>(Arrays.asList("a", "b", "c", "d")), names(NodeIterator.iterator(FakeNode.class)));
+    }
+
+    private static Set<String> names(Iterator<? extends Node> iterator) {
+        Set<String> names = new HashSet<String>();
+        while (iterator.hasNext()) {
+            names.add(iterator.next().getNodeName());
+        }
+        return names;
+    }
+
+    @TestExtension
+    public static class Lender extends FakeLender {
+    }
+
+    @TestExtension("walksAbandonedLegacySourcesToTheEnd")
+    public static class StallingLegacy extends FakeLegacy {
+
+        volatile boolean stalled;
+
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public FakeNode next() {
+            if (stalled && index == 2) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError("a shared iterator must not be interrupted", e);
+                }
+            }
+            return super.next();
+        }
+    }
+
+    @TestExtension
+    public static class Stalling extends FakeLender {
+
+        volatile boolean stalled;
+
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        protected Spliterator<FakeNode> spliterator() {
+            final Iterator<FakeNode> delegate = nodes.iterator();
+            return Spliterators.spliteratorUnknownSize(new Iterator<FakeNode>() {
+                @Override
+                public boolean hasNext() {
+                    if (delegate.hasNext()) {
+                        return true;
+                    }
+                    if (stalled) {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return false;
+                }
+
+                @Override
+                public FakeNode next() {
+                    return delegate.next();
+                }
+            }, Spliterator.NONNULL);
+        }
+    }
+}
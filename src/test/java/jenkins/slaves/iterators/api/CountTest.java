@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import hudson.model.Node;
+import hudson.slaves.DumbSlave;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CountTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void asksExtensionsThatCountFinalTypes() {
+        Counting extension = ExtensionList.lookupSingleton(Counting.class);
+        extension.nodes.add(new Counted("a"));
+        extension.nodes.add(new Counted("b"));
+        assertEquals(Collections.<Class<? extends Node>, Long>singletonMap(Counted.class, 42L),
+                NodeIterator.countsByType());
+        assertEquals(42L, NodeIterator.count(Counted.class));
+        assertFalse("iterated rather than counted", extension.walked);
+    }
+
+    @Test
+    public void iteratesExtensionsThatCannotCount() {
+        Refusing extension = ExtensionList.lookupSingleton(Refusing.class);
+        extension.nodes.add(new Counted("a"));
+        extension.nodes.add(new Counted("b"));
+        assertEquals(Collections.<Class<? extends Node>, Long>singletonMap(Counted.class, 2L),
+                NodeIterator.countsByType());
+        assertTrue(extension.walked);
+        assertEquals(2L, NodeIterator.count(Counted.class));
+    }
+
+    @Test
+    public void iteratesExtensionsThatDeclareTypesThatAreNotFinal() {
+        NotFinal extension = ExtensionList.lookupSingleton(NotFinal.class);
+        extension.lend("a");
+        extension.nodes.add(new Counted("b"));
+        Map<Class<? extends Node>, Long> expected = new HashMap<Class<? extends Node>, Long>();
+        expected.put(FakeNode.class, 1L);
+        expected.put(Counted.class, 1L);
+        assertEquals(expected, NodeIterator.countsByType());
+        assertTrue(extension.walked);
+        // the count of a single type does not need to tell the concrete types apart
+        assertEquals(42L, NodeIterator.count(FakeNode.class));
+    }
+
+    @Test
+    public void iteratesLegacyExtensions() throws Exception {
+        j.createSlave("a", null, null);
+        Legacy extension = ExtensionList.lookupSingleton(Legacy.class);
+        extension.lend("b", "c");
+        Map<Class<? extends Node>, Long> expected = new HashMap<Class<? extends Node>, Long>();
+        expected.put(DumbSlave.class, 1L);
+        expected.put(FakeNode.class, 2L);
+        assertEquals(expected, NodeIterator.countsByType());
+        assertEquals("legacy extension left part way through", 0, extension.index);
+        assertEquals(2L, NodeIterator.count(FakeNode.class));
+        assertEquals(3L, NodeIterator.count(Node.class));
+        assertEquals("legacy extension left part way through", 0, extension.index);
+    }
+
+    static final class Counted extends FakeNode {
+        Counted(String name) {
+            super(name);
+        }
+    }
+
+    abstract static class Recording extends FakeLender {
+
+        volatile boolean walked;
+
+        @Override
+        protected Spliterator<FakeNode> spliterator() {
+            walked = true;
+            return super.spliterator();
+        }
+    }
+
+    @TestExtension("asksExtensionsThatCountFinalTypes")
+    public static class Counting extends Recording {
+        @Override
+        protected Set<Class<? extends Node>> getNodeTypes() {
+            return Collections.<Class<? extends Node>>singleton(Counted.class);
+        }
+
+        @Override
+        protected long countNodes(Class<? extends Node> nodeClass) {
+            // deliberately not the number of nodes, so that a count that iterated would be caught
+            return nodeClass == Counted.class ? 42 : -1;
+        }
+    }
+
+    @TestExtension("iteratesExtensionsThatCannotCount")
+    public static class Refusing extends Recording {
+        @Override
+        protected Set<Class<? extends Node>> getNodeTypes() {
+            return Collections.<Class<? extends Node>>singleton(Counted.class);
+        }
+    }
+
+    @TestExtension("iteratesExtensionsThatDeclareTypesThatAreNotFinal")
+    public static class NotFinal extends Recording {
+        @Override
+        protected long countNodes(Class<? extends Node> nodeClass) {
+            return nodeClass == FakeNode.class ? 42 : -1;
+        }
+    }
+
+    @TestExtension("iteratesLegacyExtensions")
+    public static class Legacy extends FakeLegacy {
+    }
+}
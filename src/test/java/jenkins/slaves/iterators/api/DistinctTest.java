@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import hudson.model.Node;
+import hudson.slaves.DumbSlave;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class DistinctTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void distinctByIdentity() throws Exception {
+        DumbSlave a = j.createSlave("a", null, null);
+        FakeNode shared = new FakeNode("b");
+        FakeNode namesake = new FakeNode("b");
+        ExtensionList.lookupSingleton(Lender.class).nodes.add(shared);
+        ExtensionList.lookupSingleton(Legacy.class).nodes.add(shared);
+        ExtensionList.lookupSingleton(Legacy.class).nodes.add(namesake);
+        ExtensionList.lookupSingleton(Lender.class).lend("a");
+        List<Node> nodes = walk(NodeIterator.iterator(Node.class, DistinctBy.IDENTITY));
+        assertEquals(4, nodes.size());
+        assertSame(a, nodes.get(0));
+        assertEquals(1, count(nodes, shared));
+        assertEquals(1, count(nodes, namesake));
+        assertEquals(5, NodeIterator.count(Node.class));
+    }
+
+    @Test
+    public void distinctByName() throws Exception {
+        DumbSlave a = j.createSlave("a", null, null);
+        ExtensionList.lookupSingleton(Lender.class).lend("a", "b");
+        ExtensionList.lookupSingleton(Legacy.class).lend("b", "c");
+        List<Node> nodes = walk(NodeIterator.iterator(Node.class, DistinctBy.NAME));
+        List<String> names = new ArrayList<String>();
+        for (Node node : nodes) {
+            names.add(node.getNodeName());
+        }
+        assertEquals(3, names.size());
+        assertEquals(new HashSet<String>(Arrays.asList("a", "b", "c")), new HashSet<String>(names));
+        assertSame("the node attached to Jenkins wins", a, nodes.get(0));
+        assertEquals("legacy extension left part way through", 0, ExtensionList.lookupSingleton(Legacy.class).index);
+    }
+
+    private static <N extends Node> List<Node> walk(Iterator<N> iterator) {
+        List<Node> nodes = new ArrayList<Node>();
+        while (iterator.hasNext()) {
+            nodes.add(iterator.next());
+        }
+        return nodes;
+    }
+
+    private static int count(List<Node> nodes, Node node) {
+        int count = 0;
+        for (Node n : nodes) {
+            if (n == node) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @TestExtension
+    public static class Lender extends FakeLender {
+    }
+
+    @TestExtension
+    public static class Legacy extends FakeLegacy {
+    }
+}
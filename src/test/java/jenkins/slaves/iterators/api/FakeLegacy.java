@@ -0,0 +1,71 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.model.Node;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A legacy {@link NodeIterator} that iterates itself and only starts over once it has been exhausted, for tests.
+ * Subclasses are registered with {@link org.jvnet.hudson.test.TestExtension}.
+ */
+abstract class FakeLegacy extends NodeIterator<FakeNode> {
+
+    final List<FakeNode> nodes = new CopyOnWriteArrayList<FakeNode>();
+
+    volatile int index;
+
+    void lend(String... names) {
+        for (String name : names) {
+            nodes.add(new FakeNode(name));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (index < nodes.size()) {
+            return true;
+        }
+        index = 0;
+        return false;
+    }
+
+    @Override
+    public FakeNode next() {
+        if (index >= nodes.size()) {
+            throw new NoSuchElementException();
+        }
+        return nodes.get(index++);
+    }
+
+    @Override
+    protected Set<Class<? extends Node>> getNodeTypes() {
+        return Collections.<Class<? extends Node>>singleton(FakeNode.class);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.model.Node;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A {@link NodeIterator} that "lends" {@link FakeNode}s and can be disconnected, for tests. Subclasses are registered
+ * with {@link org.jvnet.hudson.test.TestExtension}.
+ */
+abstract class FakeLender extends NodeIterator<FakeNode> {
+
+    final List<FakeNode> nodes = new CopyOnWriteArrayList<FakeNode>();
+
+    volatile boolean connected = true;
+
+    volatile boolean disconnectAfterWalk;
+
+    void lend(String... names) {
+        for (String name : names) {
+            nodes.add(new FakeNode(name));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        throw new UnsupportedOperationException("walked through spliterator()");
+    }
+
+    @Override
+    public FakeNode next() {
+        throw new NoSuchElementException();
+    }
+
+    @Override
+    protected Set<Class<? extends Node>> getNodeTypes() {
+        return Collections.<Class<? extends Node>>singleton(FakeNode.class);
+    }
+
+    @Override
+    protected <N extends Node> boolean hasCompleteLiveSet(Class<N> nodeClass) {
+        return connected;
+    }
+
+    @Override
+    protected Spliterator<FakeNode> spliterator() {
+        final Iterator<FakeNode> delegate = nodes.iterator();
+        return Spliterators.spliteratorUnknownSize(new Iterator<FakeNode>() {
+            @Override
+            public boolean hasNext() {
+                if (delegate.hasNext()) {
+                    return true;
+                }
+                if (disconnectAfterWalk) {
+                    connected = false;
+                }
+                return false;
+            }
+
+            @Override
+            public FakeNode next() {
+                return delegate.next();
+            }
+        }, Spliterator.NONNULL);
+    }
+}
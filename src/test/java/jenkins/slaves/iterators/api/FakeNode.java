@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.model.Computer;
+import hudson.model.Node;
+import hudson.model.TaskListener;
+import hudson.model.TopLevelItem;
+import hudson.remoting.Callable;
+import hudson.slaves.NodeDescriptor;
+import hudson.slaves.NodeProperty;
+import hudson.slaves.NodePropertyDescriptor;
+import hudson.util.ClockDifference;
+import hudson.util.DescribableList;
+
+import java.io.IOException;
+
+/**
+ * A {@link Node} that only has a name, for tests and benchmarks.
+ */
+class FakeNode extends Node {
+
+    private String name;
+
+    FakeNode(String name) {
+        this.name = name;
+    }
+
+    public String getNodeName() {
+        return name;
+    }
+
+    @Deprecated
+    public void setNodeName(String name) {
+        this.name = name;
+    }
+
+    public String getNodeDescription() {
+        return name;
+    }
+
+    public Launcher createLauncher(TaskListener listener) {
+        throw new UnsupportedOperationException();
+    }
+
+    public int getNumExecutors() {
+        return 1;
+    }
+
+    public Mode getMode() {
+        return Mode.NORMAL;
+    }
+
+    protected Computer createComputer() {
+        return null;
+    }
+
+    public String getLabelString() {
+        return "";
+    }
+
+    public FilePath getWorkspaceFor(TopLevelItem item) {
+        return null;
+    }
+
+    public FilePath getRootPath() {
+        return null;
+    }
+
+    public DescribableList<NodeProperty<?>, NodePropertyDescriptor> getNodeProperties() {
+        throw new UnsupportedOperationException();
+    }
+
+    public NodeDescriptor getDescriptor() {
+        throw new UnsupportedOperationException();
+    }
+
+    public ClockDifference getClockDifference() throws IOException, InterruptedException {
+        throw new UnsupportedOperationException();
+    }
+
+    public Callable<ClockDifference, IOException> getClockDifferenceCallable() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * A {@link FakeNode} lent by a {@code FakeNodeIterator}.
+     */
+    static class Lent extends FakeNode {
+        Lent(String name) {
+            super(name);
+        }
+    }
+
+    /**
+     * Another type of {@link FakeNode} lent by a {@code FakeNodeIterator}.
+     */
+    static class OtherLent extends FakeNode {
+        OtherLent(String name) {
+            super(name);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import hudson.model.Node;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FilteredTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void pushesTheFilterDownWithoutFilteringTwice() throws Exception {
+        j.createSlave("keep-a", null, null);
+        j.createSlave("drop-a", null, null);
+        ExtensionList.lookupSingleton(Lender.class).lend("keep-b", "drop-b");
+        PushDown pushDown = ExtensionList.lookupSingleton(PushDown.class);
+        pushDown.lend("keep-c", "drop-c");
+        Prefix filter = new Prefix("keep-");
+        assertEquals(new HashSet<String>(Arrays.asList("keep-a", "keep-b", "keep-c")),
+                names(NodeIterator.iterator(Node.class, filter)));
+        assertEquals(1, pushDown.pushedDown);
+        assertTrue(filter.tested.containsAll(Arrays.asList("keep-a", "drop-a", "keep-b", "drop-b")));
+        assertFalse("filtered again after the push down", filter.tested.contains("keep-c"));
+        assertFalse("filtered locally as well as pushed down", filter.tested.contains("drop-c"));
+    }
+
+    @Test
+    public void appliesFiltersThatCannotBePushedDownLocally() throws Exception {
+        PushDown pushDown = ExtensionList.lookupSingleton(PushDown.class);
+        pushDown.lend("keep-c", "drop-c");
+        NodeFilter filter = node -> node.getNodeName().startsWith("drop-");
+        assertEquals(Collections.singleton("drop-c"), names(NodeIterator.iterator(Node.class, filter)));
+        assertEquals(0, pushDown.pushedDown);
+    }
+
+    private static Set<String> names(Iterator<? extends Node> iterator) {
+        List<String> names = new ArrayList<String>();
+        while (iterator.hasNext()) {
+            names.add(iterator.next().getNodeName());
+        }
+        Set<String> unique = new HashSet<String>(names);
+        assertEquals("returned more than once: " + names, names.size(), unique.size());
+        return unique;
+    }
+
+    static final class Prefix implements NodeFilter {
+
+        final String prefix;
+
+        final Set<String> tested = ConcurrentHashMap.newKeySet();
+
+        Prefix(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public boolean test(Node node) {
+            tested.add(node.getNodeName());
+            return node.getNodeName().startsWith(prefix);
+        }
+    }
+
+    @TestExtension
+    public static class Lender extends FakeLender {
+    }
+
+    @TestExtension({"pushesTheFilterDownWithoutFilteringTwice", "appliesFiltersThatCannotBePushedDownLocally"})
+    public static class PushDown extends FakeLender {
+
+        volatile int pushedDown;
+
+        @Override
+        protected Iterator<? extends Node> filtered(NodeFilter filter) {
+            if (!(filter instanceof Prefix)) {
+                return null;
+            }
+            pushedDown++;
+            // evaluated "remotely", without calling the filter
+            String prefix = ((Prefix) filter).prefix;
+            List<FakeNode> matching = new ArrayList<FakeNode>();
+            for (FakeNode node : nodes) {
+                if (node.getNodeName().startsWith(prefix)) {
+                    matching.add(node);
+                }
+            }
+            return matching.iterator();
+        }
+    }
+}
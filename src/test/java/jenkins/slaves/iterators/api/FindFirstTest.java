@@ -0,0 +1,72 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FindFirstTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void walksLegacyExtensionsToTheEnd() {
+        Legacy legacy = ExtensionList.lookupSingleton(Legacy.class);
+        legacy.lend("a", "b", "c");
+        for (int round = 0; round < 3; round++) {
+            FakeNode found = NodeIterator.findFirst(FakeNode.class, node -> node.getNodeName().equals("b"));
+            assertEquals("b", found.getNodeName());
+            assertEquals("legacy extension left part way through", 0, legacy.index);
+            assertTrue(NodeIterator.anyMatch(FakeNode.class, node -> node.getNodeName().equals("a")));
+            assertEquals("legacy extension left part way through", 0, legacy.index);
+        }
+        assertFalse(NodeIterator.anyMatch(FakeNode.class, node -> node.getNodeName().equals("z")));
+        assertEquals("b", NodeIterator.findByName("b").getNodeName());
+        assertEquals("legacy extension left part way through", 0, legacy.index);
+    }
+
+    @Test
+    public void mightContainNeverMissesANode() throws Exception {
+        j.createSlave("agent", null, null);
+        ExtensionList.lookupSingleton(Lender.class).lend("lent");
+        assertTrue(NodeIterator.mightContain("agent"));
+        assertTrue(NodeIterator.mightContain("lent"));
+    }
+
+    @TestExtension
+    public static class Legacy extends FakeLegacy {
+    }
+
+    @TestExtension
+    public static class Lender extends FakeLender {
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import hudson.model.Node;
+import hudson.slaves.DumbSlave;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IsCompleteTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void cachesAnswersUntilTheExtensionSignalsAChange() {
+        Lender lender = ExtensionList.lookupSingleton(Lender.class);
+        assertTrue(NodeIterator.isComplete(FakeNode.class));
+        int probes = lender.probes.get();
+        assertTrue(NodeIterator.isComplete(FakeNode.class));
+        assertEquals("answered from the cache", probes, lender.probes.get());
+        lender.connected = false;
+        lender.fireCompletenessChanged();
+        assertFalse(NodeIterator.isComplete(FakeNode.class));
+        assertFalse(NodeIterator.isComplete());
+        lender.connected = true;
+        lender.fireCompletenessChanged();
+        assertTrue(NodeIterator.isComplete(FakeNode.class));
+    }
+
+    @Test
+    public void ignoresExtensionsThatCannotReturnTheType() {
+        Lender lender = ExtensionList.lookupSingleton(Lender.class);
+        lender.connected = false;
+        lender.fireCompletenessChanged();
+        assertFalse(NodeIterator.isComplete(Node.class));
+        assertTrue(NodeIterator.isComplete(DumbSlave.class));
+    }
+
+    @Test
+    public void expiresCachedAnswersAfterTheirTimeToLive() throws Exception {
+        Lender lender = ExtensionList.lookupSingleton(Lender.class);
+        assertTrue(NodeIterator.isComplete(FakeNode.class));
+        int probes = lender.probes.get();
+        lender.connected = false;
+        assertTrue("answered from the cache", NodeIterator.isComplete(FakeNode.class));
+        assertEquals(probes, lender.probes.get());
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(CompletenessCache.TTL) + 100);
+        assertFalse(NodeIterator.isComplete(FakeNode.class));
+        assertEquals(probes + 1, lender.probes.get());
+    }
+
+    @Test
+    public void completesAsynchronouslyOnceEveryExtensionHasAnswered() throws Exception {
+        Stalling stalling = ExtensionList.lookupSingleton(Stalling.class);
+        stalling.release.countDown();
+        assertTrue(NodeIterator.isCompleteAsync(FakeNode.class).get(1, TimeUnit.MINUTES));
+    }
+
+    @Test
+    public void completesAsynchronouslyAsSoonAsAnExtensionIsIncomplete() throws Exception {
+        Stalling stalling = ExtensionList.lookupSingleton(Stalling.class);
+        Lender lender = ExtensionList.lookupSingleton(Lender.class);
+        lender.connected = false;
+        lender.fireCompletenessChanged();
+        try {
+            CompletableFuture<Boolean> complete = NodeIterator.isCompleteAsync(FakeNode.class);
+            assertFalse(complete.get(1, TimeUnit.MINUTES));
+            assertTrue("answered before every extension had", stalling.release.getCount() > 0);
+        } finally {
+            stalling.release.countDown();
+        }
+    }
+
+    @TestExtension
+    public static class Lender extends FakeLender {
+
+        final AtomicInteger probes = new AtomicInteger();
+
+        @Override
+        protected <N extends Node> boolean hasCompleteLiveSet(Class<N> nodeClass) {
+            probes.incrementAndGet();
+            return super.hasCompleteLiveSet(nodeClass);
+        }
+    }
+
+    @TestExtension({"completesAsynchronouslyOnceEveryExtensionHasAnswered",
+            "completesAsynchronouslyAsSoonAsAnExtensionIsIncomplete"})
+    public static class Stalling extends FakeLender {
+
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        protected <N extends Node> boolean hasCompleteLiveSet(Class<N> nodeClass) {
+            try {
+                return release.await(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
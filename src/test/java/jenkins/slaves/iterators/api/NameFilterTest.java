@@ -0,0 +1,76 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NameFilterTest {
+
+    @Test
+    public void neverMissesAddedNames() {
+        NameFilter filter = new NameFilter(1000);
+        for (int i = 0; i < 1000; i++) {
+            filter.add("agent-" + i);
+        }
+        assertEquals(1000, filter.size());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("agent-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("missing-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue("false positives: " + falsePositives, falsePositives < 1000);
+    }
+
+    @Test
+    public void countsRepeatedNames() {
+        NameFilter filter = new NameFilter(10);
+        filter.add("a");
+        filter.add("a");
+        filter.remove("a");
+        assertTrue(filter.mightContain("a"));
+        filter.remove("a");
+        assertFalse(filter.mightContain("a"));
+        assertEquals(0, filter.size());
+    }
+
+    @Test
+    public void reportsOverload() {
+        NameFilter filter = new NameFilter(0);
+        for (int i = 0; !filter.isOverloaded(); i++) {
+            assertTrue("never overloaded", i < 100000);
+            filter.add("agent-" + i);
+        }
+        NameFilter larger = new NameFilter(filter.size() * 2);
+        larger.add("agent-0");
+        assertFalse(larger.isOverloaded());
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import static org.junit.Assert.assertEquals;
+
+public class NodeInventoryActionTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void filtersByLabel() throws Exception {
+        j.createSlave("a", "linux docker", null);
+        j.createSlave("b", "linux", null);
+        j.createSlave("c", "windows", null);
+        ExtensionList.lookupSingleton(Lender.class).lend("d");
+        String content = j.createWebClient()
+                .goTo("node-iterator/?label=linux%26%26!docker&fields=name&format=ndjson", "application/x-ndjson")
+                .getWebResponse().getContentAsString();
+        assertEquals("{\"name\":\"b\"}\n"
+                        + "{\"complete\":{\"hudson.model.Node\":true,\"hudson.slaves.DumbSlave\":true}}\n",
+                content);
+    }
+
+    @Test
+    public void rejectsInvalidLabelExpressions() throws Exception {
+        int status = j.createWebClient().withThrowExceptionOnFailingStatusCode(false)
+                .goTo("node-iterator/?label=linux%26%26", null)
+                .getWebResponse().getStatusCode();
+        assertEquals(400, status);
+    }
+
+    @TestExtension
+    public static class Lender extends FakeLender {
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NodeIteratorCompletenessListenerTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void usesThePublishedState() {
+        Lender lender = ExtensionList.lookupSingleton(Lender.class);
+        assertTrue(NodeIterator.isComplete(FakeNode.class));
+        lender.fireCompletenessChanged(FakeNode.class, false);
+        assertFalse(NodeIterator.isComplete(FakeNode.class));
+        lender.fireCompletenessChanged(FakeNode.class, true);
+        assertTrue(NodeIterator.isComplete(FakeNode.class));
+    }
+
+    @Test
+    public void notifiesListenersOfTransitions() throws Exception {
+        Lender lender = ExtensionList.lookupSingleton(Lender.class);
+        Recorder recorder = ExtensionList.lookupSingleton(Recorder.class);
+        lender.fireCompletenessChanged(FakeNode.class, false);
+        lender.fireCompletenessChanged(FakeNode.class, false);
+        lender.fireCompletenessChanged(FakeNode.class, true);
+        assertTrue(recorder.received.await(1, TimeUnit.MINUTES));
+        List<Boolean> states = new ArrayList<Boolean>();
+        for (CompletenessTransition transition : recorder.transitions) {
+            states.add(transition.isComplete());
+        }
+        assertEquals(Arrays.asList(false, true), states);
+    }
+
+    @Test
+    public void keepsNotifyingAfterAListenerFails() throws Exception {
+        Lender lender = ExtensionList.lookupSingleton(Lender.class);
+        Recorder recorder = ExtensionList.lookupSingleton(Recorder.class);
+        Failing failing = ExtensionList.lookupSingleton(Failing.class);
+        lender.fireCompletenessChanged(FakeNode.class, false);
+        lender.fireCompletenessChanged(FakeNode.class, true);
+        assertTrue(recorder.received.await(1, TimeUnit.MINUTES));
+        assertTrue(failing.received.await(1, TimeUnit.MINUTES));
+        assertEquals(2, recorder.transitions.size());
+    }
+
+    @TestExtension
+    public static class Lender extends FakeLender {
+    }
+
+    @TestExtension("keepsNotifyingAfterAListenerFails")
+    public static class Failing extends NodeIteratorCompletenessListener {
+
+        final CountDownLatch received = new CountDownLatch(2);
+
+        @Override
+        public void onCompletenessChanged(CompletenessTransition transition) {
+            if (transition.getExtension().equals(Lender.class.getName())) {
+                received.countDown();
+                throw new IllegalStateException("failing on purpose");
+            }
+        }
+    }
+
+    @TestExtension
+    public static class Recorder extends NodeIteratorCompletenessListener {
+
+        final List<CompletenessTransition> transitions = new CopyOnWriteArrayList<CompletenessTransition>();
+
+        final CountDownLatch received = new CountDownLatch(2);
+
+        @Override
+        public void onCompletenessChanged(CompletenessTransition transition) {
+            if (transition.getExtension().equals(Lender.class.getName())) {
+                transitions.add(transition);
+                received.countDown();
+            }
+        }
+    }
+}
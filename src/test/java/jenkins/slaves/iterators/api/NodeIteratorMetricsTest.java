@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class NodeIteratorMetricsTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void recordsIterationAndCompleteness() throws Exception {
+        NodeIteratorMetrics.get().reset();
+        ExtensionList.lookupSingleton(Lender.class).lend("a", "b");
+        walk();
+        assertTrue(NodeIterator.isComplete(FakeNode.class));
+        ExtensionMetrics metrics = metricsOf(Lender.class);
+        assertNotNull(metrics);
+        assertEquals(1L, metrics.getIterationLatency().getCount());
+        assertEquals(Long.valueOf(2L), metrics.getNodeCounts().get(FakeNode.class.getName()));
+        assertEquals(1L, metrics.getCompletenessLatency().getCount());
+        assertEquals(0L, metrics.getIncompleteCount());
+        assertEquals(0L, metrics.getFailureCount());
+    }
+
+    @Test
+    public void recordsFailures() {
+        NodeIteratorMetrics.get().reset();
+        try {
+            walk();
+            fail("the failing extension was not iterated");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        ExtensionMetrics metrics = metricsOf(Failing.class);
+        assertNotNull(metrics);
+        assertEquals(1L, metrics.getFailureCount());
+        assertEquals(0L, metrics.getIterationLatency().getCount());
+    }
+
+    @Test
+    public void isRegisteredOverJmx() throws Exception {
+        NodeIteratorMetrics.get().reset();
+        ExtensionList.lookupSingleton(Lender.class).lend("a");
+        walk();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(NodeIteratorMetrics.OBJECT_NAME);
+        assertTrue(server.isRegistered(name));
+        boolean found = false;
+        for (CompositeData extension : (CompositeData[]) server.getAttribute(name, "Extensions")) {
+            if (Lender.class.getName().equals(extension.get("extension"))) {
+                found = true;
+                assertEquals(1L, ((CompositeData) extension.get("iterationLatency")).get("count"));
+            }
+        }
+        assertTrue("no metrics over JMX", found);
+        server.invoke(name, "reset", new Object[0], new String[0]);
+        assertNull(metricsOf(Lender.class));
+    }
+
+    @Test
+    public void forgetsRemovedExtensions() {
+        NodeIteratorMetrics.get().reset();
+        Lender lender = ExtensionList.lookupSingleton(Lender.class);
+        lender.lend("a");
+        walk();
+        assertNotNull(metricsOf(Lender.class));
+        ExtensionList.lookup(NodeIterator.class).remove(lender);
+        assertNull(metricsOf(Lender.class));
+    }
+
+    private static void walk() {
+        for (FakeNode node : NodeIterator.nodes(FakeNode.class)) {
+            assertNotNull(node);
+        }
+    }
+
+    private static ExtensionMetrics metricsOf(Class<?> extension) {
+        for (ExtensionMetrics metrics : NodeIteratorMetrics.get().getExtensions()) {
+            if (metrics.getExtension().equals(extension.getName())) {
+                return metrics;
+            }
+        }
+        return null;
+    }
+
+    @TestExtension({"recordsIterationAndCompleteness", "isRegisteredOverJmx", "forgetsRemovedExtensions"})
+    public static class Lender extends FakeLender {
+    }
+
+    @TestExtension("recordsFailures")
+    public static class Failing extends FakeLegacy {
+        @Override
+        public boolean hasNext() {
+            throw new IllegalStateException("failing");
+        }
+    }
+}
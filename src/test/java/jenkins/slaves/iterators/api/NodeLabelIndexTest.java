@@ -0,0 +1,127 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import hudson.model.Label;
+import hudson.model.LabelFinder;
+import hudson.model.Node;
+import hudson.model.TaskListener;
+import hudson.model.labels.LabelAtom;
+import hudson.slaves.DumbSlave;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import static org.junit.Assert.assertEquals;
+
+public class NodeLabelIndexTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void countsNodesMatchingLabels() throws Exception {
+        j.createSlave("a", "linux docker", null);
+        j.createSlave("b", "linux", null);
+        j.createSlave("c", "windows", null);
+        assertCount(2, "linux");
+        assertCount(1, "linux && docker");
+        assertCount(1, "linux && !docker");
+        assertCount(3, "linux || windows");
+        assertCount(0, "macos");
+    }
+
+    @Test
+    public void followsLabelChanges() throws Exception {
+        DumbSlave a = j.createSlave("a", "linux", null);
+        j.createSlave("b", "linux", null);
+        assertCount(2, "linux");
+        a.setLabelString("windows");
+        ExtensionList.lookupSingleton(JenkinsNodeListener.ConfigurationListener.class).onConfigurationChange();
+        assertCount(1, "linux");
+        assertCount(1, "windows");
+        assertCount(2, "linux || windows");
+    }
+
+    @Test
+    public void picksUpDynamicLabels() throws Exception {
+        Finder finder = ExtensionList.lookupSingleton(Finder.class);
+        DumbSlave a = j.createSlave("a", "linux", null);
+        assertCount(0, "gpu");
+        finder.names.add("a");
+        ExtensionList.lookupSingleton(JenkinsNodeListener.ConfigurationListener.class)
+                .onOnline(a.toComputer(), TaskListener.NULL);
+        assertCount(1, "gpu");
+        assertCount(1, "linux && gpu");
+        // dropped without notification: the index still has it, but every hit is confirmed
+        finder.names.remove("a");
+        assertCount(0, "gpu");
+    }
+
+    @Test
+    public void matchesNodesOfOtherSources() throws Exception {
+        j.createSlave("a", "linux", null);
+        ExtensionList.lookupSingleton(Lender.class).lend("b", "c");
+        ExtensionList.lookupSingleton(Finder.class).names.add("b");
+        assertCount(1, "gpu");
+        assertCount(2, "linux || gpu");
+    }
+
+    private static void assertCount(int expected, String expression) throws Exception {
+        Label label = Label.parseExpression(expression);
+        int matching = 0;
+        for (Node node : NodeIterator.nodes()) {
+            if (label.matches(node)) {
+                matching++;
+            }
+        }
+        assertEquals(expression, expected, matching);
+        assertEquals(expression, expected, NodeIterator.count(label));
+        assertEquals(expression, expected, NodeIterator.nodes(label).size());
+    }
+
+    @TestExtension
+    public static class Finder extends LabelFinder {
+
+        final Set<String> names = new CopyOnWriteArraySet<String>();
+
+        @Override
+        public Collection<LabelAtom> findLabels(Node node) {
+            return names.contains(node.getNodeName())
+                    ? Collections.singleton(LabelAtom.get("gpu"))
+                    : Collections.<LabelAtom>emptySet();
+        }
+    }
+
+    @TestExtension
+    public static class Lender extends FakeLender {
+    }
+}
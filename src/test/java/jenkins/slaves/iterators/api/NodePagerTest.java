@@ -0,0 +1,130 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import hudson.model.Node;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class NodePagerTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void pagesThroughEverySource() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            j.createSlave("agent-" + i, null, null);
+        }
+        ExtensionList.lookupSingleton(Lender.class).lend("lent-0", "lent-1", "lent-2");
+        Legacy legacy = ExtensionList.lookupSingleton(Legacy.class);
+        for (int i = 0; i < 4; i++) {
+            legacy.nodes.add(new FakeNode("legacy-" + i));
+        }
+        Hook hook = ExtensionList.lookupSingleton(Hook.class);
+        for (int i = 0; i < 3; i++) {
+            hook.nodes.add(new FakeNode("paged-" + i));
+        }
+        List<String> expected = new ArrayList<String>();
+        for (Node node : NodeIterator.nodes()) {
+            expected.add(node.getNodeName());
+        }
+        for (int limit = 1; limit <= 16; limit++) {
+            List<String> names = new ArrayList<String>();
+            String cursor = null;
+            do {
+                NodePage<Node> page = NodeIterator.page(Node.class, cursor, limit);
+                assertTrue(page.getNodes().size() <= limit);
+                for (Node node : page.getNodes()) {
+                    names.add(node.getNodeName());
+                }
+                assertEquals("legacy extension left part way through", 0, legacy.index);
+                cursor = page.getCursor();
+            } while (cursor != null);
+            assertEquals("limit " + limit, expected, names);
+        }
+    }
+
+    @Test
+    public void filtersByType() throws Exception {
+        j.createSlave("agent", null, null);
+        ExtensionList.lookupSingleton(Lender.class).lend("a", "b", "c");
+        NodePage<FakeNode> first = NodeIterator.page(FakeNode.class, null, 2);
+        assertEquals(2, first.getNodes().size());
+        NodePage<FakeNode> second = NodeIterator.page(FakeNode.class, first.getCursor(), 2);
+        assertEquals("c", second.getNodes().get(0).getNodeName());
+        assertNull(second.getCursor());
+    }
+
+    @Test
+    public void rejectsInvalidCursors() {
+        assertThrows(IllegalArgumentException.class, () -> NodeIterator.page(Node.class, "not a cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> NodeIterator.page(Node.class, null, 0));
+    }
+
+    @Test
+    public void rejectsEmptyPagesThatAreNotTheLast() {
+        ExtensionList.lookupSingleton(Hook.class).stuck = true;
+        assertThrows(IllegalStateException.class, () -> NodeIterator.page(Node.class, null, 10));
+    }
+
+    @TestExtension
+    public static class Lender extends FakeLender {
+    }
+
+    /**
+     * A self-iterating extension, as written before {@link NodeIterator#spliterator()} existed.
+     */
+    @TestExtension
+    public static class Legacy extends FakeLegacy {
+    }
+
+    @TestExtension
+    public static class Hook extends FakeLender {
+
+        volatile boolean stuck;
+
+        @Override
+        protected NodePage<? extends Node> getPage(String position, int limit) {
+            if (stuck) {
+                return new NodePage<FakeNode>(Collections.<FakeNode>emptyList(), "again");
+            }
+            int from = position == null ? 0 : Integer.parseInt(position);
+            int to = Math.min(nodes.size(), from + limit);
+            return new NodePage<FakeNode>(nodes.subList(from, to), to < nodes.size() ? Integer.toString(to) : null);
+        }
+    }
+}
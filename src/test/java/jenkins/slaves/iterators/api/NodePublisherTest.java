@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NodePublisherTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void signalsNothingUntilOnSubscribeReturns() throws Exception {
+        ExtensionList.lookupSingleton(Lender.class).lend("a", "b", "c");
+        Recorder recorder = new Recorder(Long.MAX_VALUE, 200);
+        NodeIterator.publisher(FakeNode.class).subscribe(recorder);
+        assertTrue(recorder.terminated.await(1, TimeUnit.MINUTES));
+        assertFalse("signalled during onSubscribe", recorder.overlapped);
+        assertEquals(Arrays.asList("a", "b", "c", "complete"), recorder.signals);
+    }
+
+    @Test
+    public void deliversOnlyWhatIsRequested() throws Exception {
+        ExtensionList.lookupSingleton(Lender.class).lend("a", "b", "c");
+        Recorder recorder = new Recorder(2, 0);
+        NodeIterator.publisher(FakeNode.class).subscribe(recorder);
+        Thread.sleep(200);
+        assertEquals(Arrays.asList("a", "b"), recorder.signals);
+        recorder.subscription.request(1);
+        recorder.subscription.request(1);
+        assertTrue(recorder.terminated.await(1, TimeUnit.MINUTES));
+        assertEquals(Arrays.asList("a", "b", "c", "complete"), recorder.signals);
+    }
+
+    @Test
+    public void rejectsNonPositiveRequests() throws Exception {
+        Recorder recorder = new Recorder(0, 0);
+        NodeIterator.publisher(FakeNode.class).subscribe(recorder);
+        assertTrue(recorder.terminated.await(1, TimeUnit.MINUTES));
+        assertEquals(Arrays.asList("error"), recorder.signals);
+    }
+
+    @Test
+    public void cancellingWalksLegacyExtensionsToTheEnd() throws Exception {
+        Legacy legacy = ExtensionList.lookupSingleton(Legacy.class);
+        legacy.lend("a", "b", "c", "d");
+        Recorder recorder = new Recorder(2, 0);
+        NodeIterator.publisher(FakeNode.class).subscribe(recorder);
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (recorder.signals.size() < 2) {
+            assertTrue("never delivered", System.nanoTime() - deadline < 0);
+            Thread.sleep(10);
+        }
+        recorder.subscription.cancel();
+        while (legacy.index != 0) {
+            assertTrue("legacy extension left part way through", System.nanoTime() - deadline < 0);
+            Thread.sleep(10);
+        }
+        assertEquals(Arrays.asList("a", "b"), recorder.signals);
+        List<String> names = new ArrayList<String>();
+        for (FakeNode node : NodeIterator.nodes(FakeNode.class)) {
+            names.add(node.getNodeName());
+        }
+        assertEquals(Arrays.asList("a", "b", "c", "d"), names);
+    }
+
+    private static final class Recorder implements Flow.Subscriber<FakeNode> {
+
+        final List<String> signals = new CopyOnWriteArrayList<String>();
+
+        final CountDownLatch terminated = new CountDownLatch(1);
+
+        private final long initial;
+
+        private final long linger;
+
+        volatile Flow.Subscription subscription;
+
+        volatile boolean subscribing;
+
+        volatile boolean overlapped;
+
+        Recorder(long initial, long linger) {
+            this.initial = initial;
+            this.linger = linger;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscribing = true;
+            try {
+                subscription.request(initial);
+                Thread.sleep(linger);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                subscribing = false;
+            }
+        }
+
+        @Override
+        public void onNext(FakeNode item) {
+            overlapped |= subscribing;
+            signals.add(item.getNodeName());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            overlapped |= subscribing;
+            signals.add("error");
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            overlapped |= subscribing;
+            signals.add("complete");
+            terminated.countDown();
+        }
+    }
+
+    @TestExtension
+    public static class Lender extends FakeLender {
+    }
+
+    @TestExtension("cancellingWalksLegacyExtensionsToTheEnd")
+    public static class Legacy extends FakeLegacy {
+    }
+}
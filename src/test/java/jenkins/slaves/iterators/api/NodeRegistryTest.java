@@ -0,0 +1,155 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class NodeRegistryTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void registersAndUnregisters() {
+        Registry registry = ExtensionList.lookupSingleton(Registry.class);
+        FakeNode a = new FakeNode("a");
+        FakeNode b = new FakeNode("b");
+        assertTrue(registry.register(a));
+        assertTrue(registry.register(b));
+        assertFalse(registry.register(a));
+        assertEquals(2, registry.size());
+        assertEquals(2L, NodeIterator.count(FakeNode.class));
+        assertEquals(new HashSet<String>(Arrays.asList("a", "b")), names());
+        assertTrue(registry.unregister(a));
+        assertFalse(registry.unregister(a));
+        assertFalse(registry.isRegistered(a));
+        assertTrue(registry.isRegistered(b));
+        assertEquals(new HashSet<String>(Arrays.asList("b")), names());
+        assertNull(NodeIterator.findByName("a"));
+        assertSame(b, NodeIterator.findByName("b"));
+    }
+
+    @Test
+    public void keepsOlderNodesFindableByName() {
+        Registry registry = ExtensionList.lookupSingleton(Registry.class);
+        FakeNode older = new FakeNode("a");
+        FakeNode newer = new FakeNode("a");
+        registry.register(older);
+        registry.register(newer);
+        assertSame(newer, NodeIterator.findByName("a"));
+        registry.unregister(newer);
+        assertSame(older, NodeIterator.findByName("a"));
+        assertTrue(NodeIterator.mightContain("a"));
+        registry.register(newer);
+        registry.unregister(older);
+        assertSame(newer, NodeIterator.findByName("a"));
+        registry.unregister(newer);
+        assertNull(NodeIterator.findByName("a"));
+    }
+
+    @Test
+    public void doesNotReportNodesUnregisteredWhileBeingRegistered() throws Exception {
+        final Registry registry = ExtensionList.lookupSingleton(Registry.class);
+        final FakeNode a = new FakeNode("a");
+        long start = NodeIterator.generation();
+        Field field = NodeRegistry.class.getDeclaredField("names");
+        field.setAccessible(true);
+        @SuppressWarnings("unchecked")
+        final ConcurrentMap<String, Object> names = (ConcurrentMap<String, Object>) field.get(registry);
+        final CountDownLatch holding = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        // hold the name so that the registration stops between adding the node and naming it
+        Thread holder = new Thread(() -> names.compute("a", (name, value) -> {
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return value;
+        }));
+        holder.start();
+        assertTrue(holding.await(1, TimeUnit.MINUTES));
+        Thread registering = new Thread(() -> registry.register(a));
+        registering.start();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (registering.getState() != Thread.State.BLOCKED) {
+            assertTrue("never blocked naming the node", System.nanoTime() - deadline < 0);
+            Thread.sleep(10);
+        }
+        assertTrue(registry.isRegistered(a));
+        Thread unregistering = new Thread(() -> registry.unregister(a));
+        unregistering.start();
+        while (unregistering.getState() != Thread.State.BLOCKED) {
+            assertTrue("never blocked unnaming the node", System.nanoTime() - deadline < 0);
+            Thread.sleep(10);
+        }
+        release.countDown();
+        holder.join();
+        registering.join();
+        unregistering.join();
+        assertFalse(registry.isRegistered(a));
+        assertNull(NodeIterator.findByName("a"));
+        List<NodeChange.Type> types = new ArrayList<NodeChange.Type>();
+        for (NodeChange change : NodeIterator.changesSince(start).getChanges()) {
+            types.add(change.getType());
+        }
+        assertEquals(Arrays.asList(NodeChange.Type.REMOVED), types);
+    }
+
+    private static Set<String> names() {
+        Set<String> names = new HashSet<String>();
+        for (FakeNode node : NodeIterator.nodes(FakeNode.class)) {
+            names.add(node.getNodeName());
+        }
+        return names;
+    }
+
+    @TestExtension
+    public static class Registry extends NodeRegistry<FakeNode> {
+        public Registry() {
+            super(FakeNode.class);
+        }
+    }
+}
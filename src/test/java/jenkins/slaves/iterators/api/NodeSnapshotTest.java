@@ -0,0 +1,112 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import hudson.model.Node;
+import hudson.slaves.DumbSlave;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class NodeSnapshotTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void isSharedUntilAChangeIsReported() throws Exception {
+        Registry registry = ExtensionList.lookupSingleton(Registry.class);
+        j.createSlave("a", null, null);
+        registry.register(new FakeNode("b"));
+        NodeSnapshot<Node> first = NodeIterator.snapshot();
+        assertSame(first, NodeIterator.snapshot());
+        assertTrue(first.isConsistent());
+        assertEquals(new HashSet<String>(Arrays.asList("a", "b")), names(first));
+
+        FakeNode c = new FakeNode("c");
+        registry.register(c);
+        NodeSnapshot<Node> second = NodeIterator.snapshot();
+        assertTrue(second.getGeneration() > first.getGeneration());
+        assertEquals(new HashSet<String>(Arrays.asList("a", "b", "c")), names(second));
+        // a snapshot never changes once taken
+        assertEquals(new HashSet<String>(Arrays.asList("a", "b")), names(first));
+
+        registry.unregister(c);
+        j.jenkins.removeNode(j.jenkins.getNode("a"));
+        assertEquals(new HashSet<String>(Arrays.asList("b")), names(NodeIterator.snapshot()));
+    }
+
+    @Test
+    public void viewsByType() throws Exception {
+        j.createSlave("a", null, null);
+        ExtensionList.lookupSingleton(Registry.class).register(new FakeNode("b"));
+        NodeSnapshot<Node> all = NodeIterator.snapshot();
+        NodeSnapshot<FakeNode> fakes = all.nodes(FakeNode.class);
+        assertEquals(1, fakes.size());
+        assertEquals("b", fakes.get(0).getNodeName());
+        assertEquals(new HashSet<String>(Arrays.asList("a")), names(NodeIterator.snapshot(DumbSlave.class)));
+        assertEquals(all.size(), new ArrayList<Node>(all).size());
+    }
+
+    @Test
+    public void isImmutable() throws Exception {
+        j.createSlave("a", null, null);
+        NodeSnapshot<Node> snapshot = NodeIterator.snapshot();
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(new FakeNode("b")));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> {
+            java.util.Iterator<Node> i = snapshot.iterator();
+            i.next();
+            i.remove();
+        });
+    }
+
+    private static Set<String> names(List<? extends Node> nodes) {
+        Set<String> names = new HashSet<String>();
+        for (Node node : nodes) {
+            names.add(node.getNodeName());
+        }
+        return names;
+    }
+
+    @TestExtension
+    public static class Registry extends NodeRegistry<FakeNode> {
+        public Registry() {
+            super(FakeNode.class);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import hudson.model.Node;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NodeSourcesTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void seesExtensionsAddedAndRemovedAtRuntime() {
+        ExtensionList.lookupSingleton(Registry.class).register(new FakeNode("a"));
+        assertEquals(Collections.singleton("a"), names());
+        assertFalse(NodeIterator.changesSince(NodeIterator.generation()).isResyncRequired());
+        Added added = new Added();
+        added.lend("b");
+        ExtensionList<NodeIterator> extensions = ExtensionList.lookup(NodeIterator.class);
+        extensions.add(added);
+        assertEquals(new HashSet<String>(Arrays.asList("a", "b")), names());
+        assertTrue("an extension that does not report its changes was added",
+                NodeIterator.changesSince(NodeIterator.generation()).isResyncRequired());
+        extensions.remove(added);
+        assertEquals(Collections.singleton("a"), names());
+        assertFalse(NodeIterator.changesSince(NodeIterator.generation()).isResyncRequired());
+    }
+
+    private static Set<String> names() {
+        Set<String> names = new HashSet<String>();
+        for (Node node : NodeIterator.nodes()) {
+            names.add(node.getNodeName());
+        }
+        return names;
+    }
+
+    @TestExtension
+    public static class Registry extends NodeRegistry<FakeNode> {
+        public Registry() {
+            super(FakeNode.class);
+        }
+    }
+
+    static class Added extends FakeLender {
+    }
+}
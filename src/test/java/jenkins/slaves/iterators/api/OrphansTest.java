@@ -0,0 +1,85 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import hudson.model.Node;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OrphansTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void reportsResourcesWithoutNodes() throws Exception {
+        Lender lender = ExtensionList.lookupSingleton(Lender.class);
+        lender.lend("a", "c");
+        j.createSlave("b", null, null);
+        assertEquals(new LinkedHashSet<String>(Arrays.asList("d", "e")),
+                NodeIterator.orphans(Node.class, Stream.of("a", "b", "c", "d", "e"), Node::getNodeName));
+    }
+
+    @Test
+    public void ignoresNodesWithoutResources() {
+        Lender lender = ExtensionList.lookupSingleton(Lender.class);
+        lender.lend("a", "b");
+        assertEquals(Collections.singleton("x"), NodeIterator.orphans(FakeNode.class, Stream.of("a", "x"),
+                node -> "b".equals(node.getNodeName()) ? null : node.getNodeName()));
+    }
+
+    @Test
+    public void refusesWhenIncomplete() {
+        Lender lender = ExtensionList.lookupSingleton(Lender.class);
+        lender.lend("a");
+        lender.connected = false;
+        assertNull(NodeIterator.orphans(FakeNode.class, Stream.of("a", "b"), Node::getNodeName));
+    }
+
+    @Test
+    public void refusesWhenIncompleteAfterWalk() {
+        Lender lender = ExtensionList.lookupSingleton(Lender.class);
+        lender.lend("a");
+        // warm the cache so that only a fresh probe can notice the disconnection
+        assertTrue(NodeIterator.isComplete(FakeNode.class));
+        lender.disconnectAfterWalk = true;
+        assertNull(NodeIterator.orphans(FakeNode.class, Stream.of("a", "b"), Node::getNodeName));
+    }
+
+    @TestExtension
+    public static class Lender extends FakeLender {
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SeenSetTest {
+
+    @Test
+    public void growsPastItsInitialCapacityByIdentity() {
+        SeenSet seen = new SeenSet(DistinctBy.IDENTITY, 0);
+        List<FakeNode> nodes = new ArrayList<FakeNode>();
+        for (int i = 0; i < 10000; i++) {
+            FakeNode node = new FakeNode("node-" + i);
+            nodes.add(node);
+            assertTrue(seen.add(node));
+        }
+        assertEquals(10000, seen.size());
+        for (FakeNode node : nodes) {
+            assertFalse(seen.add(node));
+            assertTrue("same name, different node", seen.add(new FakeNode(node.getNodeName())));
+        }
+        assertEquals(20000, seen.size());
+    }
+
+    @Test
+    public void growsPastItsInitialCapacityByName() {
+        SeenSet seen = new SeenSet(DistinctBy.NAME, 4);
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(seen.add(new FakeNode("node-" + i)));
+        }
+        assertEquals(10000, seen.size());
+        for (int i = 0; i < 10000; i++) {
+            assertFalse(seen.add(new FakeNode("node-" + i)));
+        }
+        assertEquals(10000, seen.size());
+    }
+}
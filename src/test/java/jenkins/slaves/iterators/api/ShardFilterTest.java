@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import hudson.model.Node;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class ShardFilterTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void partitionsIntoDisjointShards() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            j.createSlave("agent-" + i, null, null);
+        }
+        Lender lender = ExtensionList.lookupSingleton(Lender.class);
+        for (int i = 0; i < 20; i++) {
+            lender.lend("lent-" + i);
+        }
+        Set<String> all = new HashSet<String>();
+        for (Node node : NodeIterator.nodes()) {
+            all.add(node.getNodeName());
+        }
+        Set<String> union = new HashSet<String>();
+        for (int shard = 0; shard < 4; shard++) {
+            for (Iterator<Node> i = NodeIterator.partition(Node.class, shard, 4); i.hasNext(); ) {
+                String name = i.next().getNodeName();
+                assertEquals(name, shard, ShardFilter.shardOf(name, 4));
+                assertTrue("in two shards: " + name, union.add(name));
+            }
+        }
+        assertEquals(all, union);
+    }
+
+    @Test
+    public void isAValueObject() {
+        assertEquals(new ShardFilter(1, 3), new ShardFilter(1, 3));
+        assertEquals(new ShardFilter(1, 3).hashCode(), new ShardFilter(1, 3).hashCode());
+        assertNotEquals(new ShardFilter(1, 3), new ShardFilter(2, 3));
+        assertNotEquals(new ShardFilter(1, 3), new ShardFilter(1, 4));
+        assertTrue(new ShardFilter(0, 1).test(new FakeNode("anything")));
+        assertFalse(new ShardFilter(ShardFilter.shardOf("a", 2) ^ 1, 2).test(new FakeNode("a")));
+    }
+
+    @Test
+    public void rejectsInvalidShards() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardFilter(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ShardFilter(-1, 2));
+        assertThrows(IllegalArgumentException.class, () -> new ShardFilter(2, 2));
+    }
+
+    @TestExtension
+    public static class Lender extends FakeLender {
+    }
+}
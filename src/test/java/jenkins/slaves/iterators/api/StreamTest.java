@@ -0,0 +1,101 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, CloudBees, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.slaves.iterators.api;
+
+import hudson.ExtensionList;
+import hudson.model.Node;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StreamTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void streamsEverySource() throws Exception {
+        j.createSlave("a", null, null);
+        ExtensionList.lookupSingleton(Lender.class).lend("b", "c");
+        ExtensionList.lookupSingleton(Legacy.class).lend("d");
+        Set<String> expected = new HashSet<String>(Arrays.asList("a", "b", "c", "d"));
+        assertEquals(expected, NodeIterator.stream().map(Node::getNodeName).collect(Collectors.toSet()));
+        for (int round = 0; round < 3; round++) {
+            List<String> names = NodeIterator.stream().parallel().map(Node::getNodeName).collect(Collectors.toList());
+            assertEquals(4, names.size());
+            assertEquals(expected, new HashSet<String>(names));
+            assertEquals("legacy extension left part way through", 0, ExtensionList.lookupSingleton(Legacy.class).index);
+        }
+        assertEquals(3L, NodeIterator.stream(FakeNode.class).count());
+        assertEquals(3L, NodeIterator.count(FakeNode.class));
+    }
+
+    @Test
+    public void shortCircuitingWalksLegacyExtensionsToTheEnd() throws Exception {
+        Legacy legacy = ExtensionList.lookupSingleton(Legacy.class);
+        legacy.lend("d", "e", "f");
+        assertEquals("d", NodeIterator.stream(FakeNode.class)
+                .filter(node -> node.getNodeName().equals("d")).findFirst().get().getNodeName());
+        assertEquals("legacy extension left part way through", 0, legacy.index);
+        assertTrue(NodeIterator.stream().anyMatch(node -> node.getNodeName().equals("e")));
+        assertEquals("legacy extension left part way through", 0, legacy.index);
+        assertEquals(new HashSet<String>(Arrays.asList("d", "e", "f")),
+                NodeIterator.stream(FakeNode.class).map(Node::getNodeName).collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void iteratesEveryNodeOnce() throws Exception {
+        j.createSlave("a", null, null);
+        ExtensionList.lookupSingleton(Lender.class).lend("b");
+        ExtensionList.lookupSingleton(Legacy.class).lend("c");
+        for (int round = 0; round < 3; round++) {
+            Set<String> names = new HashSet<String>();
+            int count = 0;
+            for (Node node : NodeIterator.nodes()) {
+                names.add(node.getNodeName());
+                count++;
+            }
+            assertEquals(3, count);
+            assertEquals(new HashSet<String>(Arrays.asList("a", "b", "c")), names);
+        }
+    }
+
+    @TestExtension
+    public static class Lender extends FakeLender {
+    }
+
+    @TestExtension
+    public static class Legacy extends FakeLegacy {
+    }
+}